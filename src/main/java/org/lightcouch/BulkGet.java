@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.lightcouch.serializer.Serializer;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.CouchDbUtil.getStream;
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Fetches many documents, by id or by <tt>id@rev</tt>, with a single <tt>POST _bulk_get</tt> request.
+ * <p>
+ * The response is read as it is iterated and each document decoded in turn, so memory use does not depend on the
+ * number of documents. A document that cannot be returned, missing or deleted, gives a result with its error instead
+ * of failing the request.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * List&lt;DocRef&gt; refs = Arrays.asList(new DocRef("doc-1", "2-a1b2"), new DocRef("doc-2"));
+ * BulkGet&lt;Foo&gt; request = dbClient.bulkGet(refs, Foo.class).revs(true);
+ * try (CloseableIterator&lt;BulkGetResult&lt;Foo&gt;&gt; results = request.queryForIterator()) {
+ *     while (results.hasNext()) {
+ *         BulkGetResult&lt;Foo&gt; result = results.next();
+ *         if (result.isOk()) {
+ *             Foo foo = result.getDoc();
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <T> The type of the documents.
+ * @see CouchDbClientBase#bulkGet(List, Class)
+ * @since 0.3.3
+ */
+public class BulkGet<T> {
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final List<DocRef> refs;
+    private final Class<T> classType;
+    private Boolean revs;
+    private Boolean latest;
+    private Boolean attachments;
+
+    BulkGet(CouchDbClientBase<?, ?> dbc, List<DocRef> refs, Class<T> classType) {
+        assertNotEmpty(refs, "refs");
+        assertNotEmpty(classType, "Class");
+        this.dbc = dbc;
+        this.refs = refs;
+        this.classType = classType;
+    }
+
+    /**
+     * @param revs Includes the revision history of each document, <tt>_revisions</tt>.
+     * @return This request.
+     */
+    public BulkGet<T> revs(boolean revs) {
+        this.revs = revs;
+        return this;
+    }
+
+    /**
+     * @param latest Returns the latest leaf revision of the branch of each requested revision, instead of the
+     *            requested revision itself.
+     * @return This request.
+     */
+    public BulkGet<T> latest(boolean latest) {
+        this.latest = latest;
+        return this;
+    }
+
+    /**
+     * @param attachments Includes the attachments data, Base64 encoded, instead of their stubs.
+     * @return This request.
+     */
+    public BulkGet<T> attachments(boolean attachments) {
+        this.attachments = attachments;
+        return this;
+    }
+
+    /**
+     * @return The results, in the order of the requested documents.
+     */
+    public List<BulkGetResult<T>> query() {
+        final List<BulkGetResult<T>> results = new ArrayList<>(refs.size());
+        try (CloseableIterator<BulkGetResult<T>> iterator = queryForIterator()) {
+            iterator.forEachRemaining(results::add);
+        }
+        return results;
+    }
+
+    /**
+     * Reads the results as they are iterated. The iterator should be closed if it is not read to the end, as to
+     * avoid connection leaks.
+     *
+     * @return The results, in the order of the requested documents.
+     */
+    public CloseableIterator<BulkGetResult<T>> queryForIterator() {
+        return open(dbc);
+    }
+
+    /**
+     * Reads the results as a {@link Stream}, see {@link #queryForIterator()}. The stream should be closed.
+     *
+     * @return The results, in the order of the requested documents.
+     */
+    public Stream<BulkGetResult<T>> queryForStream() {
+        final CloseableIterator<BulkGetResult<T>> iterator = queryForIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    private <JoT, JeT> CloseableIterator<BulkGetResult<T>> open(CouchDbClientBase<JoT, JeT> dbc) {
+        final Serializer<JoT, JeT> serializer = dbc.getSerializer();
+        final HttpPost post = new HttpPost(buildUri(dbc.getDBUri()).path("_bulk_get").query("revs", revs)
+                .query("latest", latest).query("attachments", attachments).build());
+        post.addHeader(CouchDbClientBase.ACCEPT_JSON);
+        post.setEntity(JsonEntity.of(serializer, Collections.singletonMap("docs", refs)));
+        final InputStream in = getStream(dbc.executeRequest(post));
+        final Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return new Results(new JsonStreamIterator<>(post, serializer.streamArray(reader, "results"),
+                result -> decode(serializer, result)));
+    }
+
+    /**
+     * Decodes the entries of a requested document, one unless several revisions are returned for it.
+     */
+    private <JoT, JeT> List<BulkGetResult<T>> decode(Serializer<JoT, JeT> serializer, JeT result) {
+        final String id = serializer.getAsString(serializer.toJsonObject(result), "id");
+        final List<JeT> entries = serializer.getAsList(serializer.getKeyFromObject(result, "docs"));
+        final List<BulkGetResult<T>> decoded = new ArrayList<>(entries.size());
+        for (JeT entry : entries) {
+            final JeT ok = serializer.getKeyFromObject(entry, "ok");
+            if (ok != null) {
+                decoded.add(new BulkGetResult<>(id, serializer.getRev(serializer.toJsonObject(ok)),
+                        serializer.fromJson(ok, classType), null, null));
+            } else {
+                final JoT error = serializer.toJsonObject(serializer.getKeyFromObject(entry, "error"));
+                final String errorId = serializer.getAsString(error, "id");
+                decoded.add(new BulkGetResult<>(errorId != null ? errorId : id, serializer.getAsString(error, "rev"),
+                        null, serializer.getAsString(error, "error"), serializer.getAsString(error, "reason")));
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Flattens the entries of the requested documents.
+     */
+    private class Results implements CloseableIterator<BulkGetResult<T>> {
+
+        private final CloseableIterator<List<BulkGetResult<T>>> documents;
+        private Iterator<BulkGetResult<T>> current = Collections.emptyIterator();
+
+        Results(CloseableIterator<List<BulkGetResult<T>>> documents) {
+            this.documents = documents;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (!documents.hasNext()) {
+                    return false;
+                }
+                current = documents.next().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public BulkGetResult<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            documents.close();
+        }
+    }
+}
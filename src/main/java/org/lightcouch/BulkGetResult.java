@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+/**
+ * A document returned by <tt>_bulk_get</tt>, or the error returned in its place.
+ *
+ * @param <T> The type of the documents.
+ * @see BulkGet
+ * @since 0.3.3
+ */
+public class BulkGetResult<T> {
+
+    private final String id;
+    private final String rev;
+    private final T doc;
+    private final String error;
+    private final String reason;
+
+    BulkGetResult(String id, String rev, T doc, String error, String reason) {
+        this.id = id;
+        this.rev = rev;
+        this.doc = doc;
+        this.error = error;
+        this.reason = reason;
+    }
+
+    /**
+     * @return The document id.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The revision of the document, or the requested one on error.
+     */
+    public String getRev() {
+        return rev;
+    }
+
+    /**
+     * @return The document, {@code null} on error.
+     */
+    public T getDoc() {
+        return doc;
+    }
+
+    /**
+     * @return The error, e.g. <tt>not_found</tt>, or {@code null} if the document was found.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return The reason of the error, e.g. <tt>missing</tt> or <tt>deleted</tt>.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @return {@code true} if the document was found.
+     */
+    public boolean isOk() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkGetResult [id=" + id + ", rev=" + rev + (error == null ? "" : ", error=" + error + ", reason="
+                + reason) + "]";
+    }
+}
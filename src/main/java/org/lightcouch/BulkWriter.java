@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Writes large numbers of documents in chunks sent as parallel <tt>_bulk_docs</tt> requests.
+ * <p>
+ * The documents are serialized one chunk at a time as they are read from the input, so that at most
+ * <tt>parallelism</tt> chunks are held in memory. A chunk is cut at <tt>chunkSize</tt> documents or before it
+ * exceeds <tt>maxBytes</tt>. After each request the chunk size moves towards the size the server writes in
+ * <tt>targetLatency</tt>; a chunk rejected as too large (<tt>max_http_request_size</tt>) is split in two and the
+ * byte limit lowered. The writer keeps the learned sizes for its next writes.
+ * <p>
+ * Responses are returned in input order, with the per document errors such as conflicts in
+ * {@link Response#getError()}. If a request fails the write stops and throws once the requests in flight complete;
+ * as with {@link CouchDbClientBase#bulk(List, boolean)}, the chunks already written are not rolled back.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * BulkWriter writer = dbClient.bulkWriter().parallelism(4).targetLatency(500);
+ * List&lt;Response&gt; responses = writer.write(docs);
+ * // or streamed from any source
+ * writer.write(reader.iterator());
+ * </pre>
+ *
+ * @see CouchDbClientBase#bulkWriter()
+ * @since 0.3.3
+ */
+public class BulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkWriter.class);
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final Serializer<?, ?> serializer;
+    private int parallelism = 4;
+    private int maxChunkSize = 10000;
+    private long targetLatency = 1000;
+    private boolean newEdits = true;
+
+    private volatile int chunkSize = 500;
+    private volatile long maxBytes = 8 * 1024 * 1024;
+
+    BulkWriter(CouchDbClientBase<?, ?> dbc) {
+        this.dbc = dbc;
+        this.serializer = dbc.getSerializer();
+    }
+
+    /**
+     * @param parallelism The number of concurrent requests, not more than the maximum connections of the client.
+     *            Defaults to 4.
+     * @return {@link BulkWriter}
+     */
+    public BulkWriter parallelism(int parallelism) {
+        CouchDbUtil.assertTrue(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param initial The number of documents of the first chunk. Defaults to 500.
+     * @param max The maximum number of documents of a chunk. Defaults to 10000.
+     * @return {@link BulkWriter}
+     */
+    public BulkWriter chunkSize(int initial, int max) {
+        CouchDbUtil.assertTrue(initial > 0 && max >= initial, "invalid chunk sizes");
+        this.chunkSize = initial;
+        this.maxChunkSize = max;
+        return this;
+    }
+
+    /**
+     * @param maxBytes The maximum size of a request body in UTF-8 bytes, below the <tt>max_http_request_size</tt> of
+     *            the server. Defaults to 8 MB. A single document larger than this is sent alone.
+     * @return {@link BulkWriter}
+     */
+    public BulkWriter maxBytes(long maxBytes) {
+        CouchDbUtil.assertTrue(maxBytes > 0, "maxBytes must be positive");
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * @param targetLatency The time in milliseconds a request should take, the chunk size adapts towards it.
+     *            Defaults to 1 second.
+     * @return {@link BulkWriter}
+     */
+    public BulkWriter targetLatency(long targetLatency) {
+        CouchDbUtil.assertTrue(targetLatency > 0, "targetLatency must be positive");
+        this.targetLatency = targetLatency;
+        return this;
+    }
+
+    /**
+     * @param newEdits Whether CouchDB assigns new revisions, as in {@link CouchDbClientBase#bulk(List, boolean)}.
+     *            Defaults to true.
+     * @return {@link BulkWriter}
+     */
+    public BulkWriter newEdits(boolean newEdits) {
+        this.newEdits = newEdits;
+        return this;
+    }
+
+    /**
+     * @return The number of documents of the next chunk.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return The maximum size of a request body, lowered when the server rejects a request as too large.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Writes a list of documents.
+     *
+     * @param objects The documents.
+     * @return The responses, in input order.
+     */
+    public List<Response> write(List<?> objects) {
+        assertNotEmpty(objects, "objects");
+        return write(objects.iterator());
+    }
+
+    /**
+     * Writes the documents of an iterator, read as the chunks are sent.
+     *
+     * @param objects The documents.
+     * @return The responses, in input order.
+     */
+    public List<Response> write(Iterator<?> objects) {
+        assertNotEmpty(objects, "objects");
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            final Thread thread = new Thread(r, "lightcouch-bulk-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Semaphore slots = new Semaphore(parallelism);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final List<Future<List<Response>>> chunks = new ArrayList<>();
+        try {
+            final Chunker chunker = new Chunker(objects);
+            while (chunker.hasNext() && failure.get() == null) {
+                final List<String> docs = chunker.next();
+                slots.acquire();
+                chunks.add(pool.submit(() -> {
+                    try {
+                        return send(docs);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+            final List<Response> responses = new ArrayList<>();
+            for (Future<List<Response>> chunk : chunks) {
+                try {
+                    responses.addAll(chunk.get());
+                } catch (ExecutionException e) {
+                    // thrown below once all the chunks completed
+                }
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return responses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CouchDbException("Interrupted bulk write", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends a chunk, split in two while the server rejects it as too large.
+     */
+    private List<Response> send(List<String> docs) {
+        final long start = System.nanoTime();
+        try {
+            final List<Response> responses = dbc.bulkDocs(JsonEntity.bulkDocs(docs, newEdits));
+            adapt(docs.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return responses;
+        } catch (RequestTooLargeException e) {
+            if (docs.size() == 1) {
+                throw e;
+            }
+            shrink(bytes(docs));
+            log.debug("Bulk request of {} documents too large, splitting", docs.size());
+            final List<Response> responses = new ArrayList<>(send(docs.subList(0, docs.size() / 2)));
+            responses.addAll(send(docs.subList(docs.size() / 2, docs.size())));
+            return responses;
+        }
+    }
+
+    /**
+     * Moves the chunk size towards the size written in the target latency, at most doubling or halving it.
+     */
+    private synchronized void adapt(int docs, long latency) {
+        final int current = chunkSize;
+        final double ideal = docs * (double) targetLatency / Math.max(1, latency);
+        double next = Math.max(current / 2.0, Math.min(current * 2.0, (current + ideal) / 2));
+        if (docs < current) { // cut by size or at the end of the input, says little about larger chunks
+            next = Math.min(next, current);
+        }
+        chunkSize = (int) Math.max(1, Math.min(maxChunkSize, Math.round(next)));
+    }
+
+    private synchronized void shrink(long bytes) {
+        maxBytes = Math.max(1, Math.min(maxBytes, bytes / 2));
+        chunkSize = Math.max(1, chunkSize / 2);
+    }
+
+    private static long bytes(List<String> docs) {
+        long bytes = 0;
+        for (String doc : docs) {
+            bytes += utf8Length(doc);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return The length of a string encoded as UTF-8, without encoding it.
+     */
+    private static long utf8Length(String s) {
+        long bytes = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x800) {
+                bytes += 2;
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    i++; // 4 bytes for the pair
+                }
+            } else if (c >= 0x80) {
+                bytes += 1;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Serializes the input into chunks of documents.
+     */
+    private class Chunker {
+        private final Iterator<?> objects;
+        private String carried; // did not fit in the previous chunk
+
+        Chunker(Iterator<?> objects) {
+            this.objects = objects;
+        }
+
+        boolean hasNext() {
+            return carried != null || objects.hasNext();
+        }
+
+        List<String> next() {
+            final int size = chunkSize;
+            final long limit = maxBytes;
+            final List<String> docs = new ArrayList<>(size);
+            long bytes = 0;
+            while (docs.size() < size && (carried != null || objects.hasNext())) {
+                final String doc = carried != null ? carried : serializer.toJson(objects.next());
+                carried = null;
+                final long length = utf8Length(doc) + 1; // and its separator
+                if (!docs.isEmpty() && bytes + length > limit) {
+                    carried = doc;
+                    break;
+                }
+                docs.add(doc);
+                bytes += length;
+            }
+            return docs;
+        }
+    }
+}
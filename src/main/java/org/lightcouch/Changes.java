@@ -16,21 +16,34 @@ package org.lightcouch;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.lightcouch.ChangesResult.Row;
 import org.lightcouch.serializer.Serializer;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
 
 /**
  * <p>
- * Contains the Change Notifications API, supports <i>normal</i> and <i>continuous</i> feed Changes.
+ * Contains the Change Notifications API, supports <i>normal</i>, <i>longpoll</i>, <i>continuous</i> and
+ * <i>eventsource</i> feed Changes.
  * <h3>Usage Example:</h3>
  * 
  * <pre>
@@ -47,6 +60,14 @@ import java.util.Map;
  *   JsonObject doc = row.getDoc();
  * }
  *
+ * // feed type normal, large feeds
+ * try (ChangesStream rows = dbClient.changes().since(since).seqInterval(1000).getChangesStream()) {
+ *   while (rows.hasNext()) {
+ *     ChangesResult.Row row = rows.next();
+ *   }
+ *   since = rows.getLastSeq();
+ * }
+ *
  * // feed type continuous
  * Changes changes = dbClient.changes()
  *	.includeDocs(true) 
@@ -60,6 +81,24 @@ import java.util.Map;
  *	// changes.stop(); // stop continuous feed
  * }
  * 
+ * // feed type continuous, documents decoded directly or passed through unparsed
+ * while (changes.hasNext()) { 
+ *	Foo foo = changes.next(Foo.class).getDoc();
+ *	// or: byte[] json = changes.nextRaw().getDoc().getBytes();
+ * }
+ * 
+ * // feed type longpoll, waits for the next changes
+ * try (ChangesStream rows = dbClient.changes().since(since).timeout(60000).longPollChanges()) {
+ *   ...
+ * }
+ * 
+ * // feed type continuous, with backpressure
+ * dbClient.changes()
+ *	.includeDocs(true)
+ *	.heartBeat(30000)
+ *	.continuousChangesPublisher()
+ *	.subscribe(subscriber);
+ * 
  * Selector filter:
  * ChangesResult changeResult = dbClient.changes()
  *	.since(since) 
@@ -75,10 +114,20 @@ import java.util.Map;
  */
 public class Changes<JoT, JeT> {
 
+    private static final ChangesMonitor NO_MONITOR = new ChangesMonitor() {
+    };
+
     private BufferedReader reader;
     private HttpUriRequest httpRequest;
+    private String nextLine;
     private Row nextRow;
     private boolean stop;
+    private ChangesMonitor monitor = NO_MONITOR;
+    private volatile long lastRead = System.nanoTime();
+    private volatile boolean reading;
+    private boolean eventSource;
+    private boolean inEvent;
+    private String eventType;
 
     private CouchDbClientBase<JoT, JeT> dbc;
     private Serializer<JoT, JeT> serializer;
@@ -102,23 +151,51 @@ public class Changes<JoT, JeT> {
      * @return {@link Changes}
      */
     public Changes continuousChanges() {
-        final URI uri = uriBuilder.query("feed", "continuous").build();
-        if (selector == null) {
-            final HttpGet get = new HttpGet(uri);
-            httpRequest = get;
-            final InputStream in = dbc.get(get);
-            final InputStreamReader is = new InputStreamReader(in, StandardCharsets.UTF_8);
-            setReader(new BufferedReader(is));
-        } else {
-            final HttpPost post = new HttpPost(uri);
-            httpRequest = post;
-            final InputStream in = dbc.post(post, selector);
-            final InputStreamReader is = new InputStreamReader(in, StandardCharsets.UTF_8);
-            setReader(new BufferedReader(is));
+        return openContinuous("continuous");
+    }
+
+    /**
+     * Requests Change notifications of feed type eventsource, read like a continuous feed in an <i>iterator</i>
+     * style. The rows are carried in the <tt>data</tt> field of server-sent events, e.g. through proxies that only
+     * pass <tt>text/event-stream</tt> responses unbuffered.
+     * 
+     * @return {@link Changes}
+     * @since 0.3.3
+     */
+    public Changes eventSourceChanges() {
+        eventSource = true;
+        return openContinuous("eventsource");
+    }
+
+    private Changes openContinuous(String feed) {
+        final URI uri = uriBuilder.query("feed", feed).build();
+        final HttpUriRequestBase request = newRequest(uri);
+        httpRequest = request;
+        lastRead = System.nanoTime();
+        reading = true;
+        try {
+            final InputStream in = openFeed(request);
+            setReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } finally {
+            reading = false;
         }
         return this;
     }
 
+    /**
+     * Requests Change notifications of feed type continuous, published to a {@link Flow.Subscriber}.
+     * <p>
+     * Each subscription opens its own feed, read on a dedicated thread only as fast as the subscriber requests rows.
+     * Cancelling the subscription aborts the feed request.
+     * 
+     * @return A {@link Flow.Publisher} of the feed rows.
+     * @since 0.3.3
+     */
+    public Flow.Publisher<Row> continuousChangesPublisher() {
+        final URI uri = uriBuilder.query("feed", "continuous").build();
+        return new ChangesPublisher(() -> newRequest(uri), this::openFeed, serializer, monitor);
+    }
+
     /**
      * Checks whether a feed is available in the continuous stream, blocking until a feed is received.
      * 
@@ -132,9 +209,35 @@ public class Changes<JoT, JeT> {
      * @return The next feed in the stream.
      */
     public Row next() {
+        if (getNextRow() == null && nextLine != null) {
+            setNextRow(parse(() -> serializer.fromJson(nextLine, Row.class)));
+        }
         return getNextRow();
     }
 
+    /**
+     * Decodes the document of the next feed directly into the given class, instead of the generic map of
+     * {@link Row#getDoc()}.
+     * 
+     * @param docType The class of the documents.
+     * @return The next feed in the stream.
+     * @since 0.3.3
+     */
+    public <T> DocChange<T> next(Class<T> docType) {
+        assertNotEmpty(docType, "docType");
+        return nextChange(doc -> serializer.fromJson(doc, docType));
+    }
+
+    /**
+     * Returns the next feed with its document left unparsed, for consumers passing the documents through.
+     * 
+     * @return The next feed in the stream.
+     * @since 0.3.3
+     */
+    public DocChange<RawJson> nextRaw() {
+        return nextChange(doc -> new RawJson(doc, serializer));
+    }
+
     /**
      * Stops a running continuous feed.
      */
@@ -142,6 +245,16 @@ public class Changes<JoT, JeT> {
         stop = true;
     }
 
+    /**
+     * Stops a running continuous feed from another thread, aborting a blocked read. Internal use.
+     */
+    void abort() {
+        stop = true;
+        if (httpRequest != null) {
+            httpRequest.abort();
+        }
+    }
+
     /**
      * Requests Change notifications of feed type normal.
      * 
@@ -149,20 +262,51 @@ public class Changes<JoT, JeT> {
      */
     public ChangesResult getChanges() {
         final URI uri = uriBuilder.query("feed", "normal").build();
-        if (selector == null && docIds == null) {
+        final String json = getFilterJson();
+        if (json == null) {
             return dbc.get(uri, ChangesResult.class);
         } else {
-            String json = selector;
-            if (docIds != null) {
-                Map<String, Object> docIdsJson = new HashMap<>();
-                docIdsJson.put("doc_ids", docIds);
-                json = serializer.toJson(docIdsJson);
-            }
-
             return dbc.post(uri, json, ChangesResult.class);
         }
     }
 
+    /**
+     * Requests Change notifications of feed type normal, reading the rows as they are iterated so that memory use
+     * does not depend on the number of changes.
+     * 
+     * @return {@link ChangesStream}
+     * @since 0.3.3
+     */
+    public ChangesStream getChangesStream() {
+        return openStream("normal");
+    }
+
+    /**
+     * Requests Change notifications of feed type longpoll: the server answers as soon as there are changes after
+     * <tt>since</tt>, or with no rows after the <tt>timeout</tt>. The rows are read as they are iterated.
+     * <p>
+     * Unlike a continuous feed, no connection is held between polls, which suits many databases with few changes.
+     * 
+     * @return {@link ChangesStream}
+     * @see LongPollScheduler
+     * @since 0.3.3
+     */
+    public ChangesStream longPollChanges() {
+        return openStream("longpoll");
+    }
+
+    private ChangesStream openStream(String feed) {
+        final URI uri = uriBuilder.query("feed", feed).build();
+        final HttpUriRequestBase request = newRequest(uri);
+        final Reader reader = new InputStreamReader(openFeed(request), StandardCharsets.UTF_8);
+        final JsonStreamIterator<JeT, Row> rows = new JsonStreamIterator<>(request,
+                serializer.streamArray(reader, "results"), row -> serializer.fromJson(row, Row.class));
+        return new ChangesStream(rows, name -> {
+            final JeT value = rows.getField(name);
+            return value == null ? null : serializer.fromJson(value, String.class);
+        });
+    }
+
     // Query Params
 
     public Changes since(String since) {
@@ -227,6 +371,41 @@ public class Changes<JoT, JeT> {
         return this;
     }
 
+    /**
+     * @param monitor Receives the connection, row, heartbeat and byte events of the feed.
+     * @return {@link Changes}
+     * @see ChangesMetrics
+     * @since 0.3.3
+     */
+    public Changes monitor(ChangesMonitor monitor) {
+        assertNotEmpty(monitor, "monitor");
+        this.monitor = monitor;
+        return this;
+    }
+
+    /**
+     * @return The time in milliseconds a continuous feed has been waited for since its last row or heartbeat, or
+     *         since it was requested, 0 while the rows are processed. Internal use.
+     */
+    long getIdleMillis() {
+        return reading ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRead) : 0;
+    }
+
+    /**
+     * Aborts a continuous feed that stopped sending rows and heartbeats. Internal use.
+     */
+    void stalled(long idleMillis) {
+        monitor.onStall(idleMillis);
+        abort();
+    }
+
+    /**
+     * Reports a row processed by the follower reading this feed to the monitor.
+     */
+    void processed(String seq) {
+        monitor.onProcessed(seq);
+    }
+
     // Helper
 
     /**
@@ -234,16 +413,16 @@ public class Changes<JoT, JeT> {
      */
     private boolean readNextRow() {
         boolean hasNext = false;
+        lastRead = System.nanoTime();
+        reading = true;
         try {
             if (!stop) {
-                String row = "";
-                do {
-                    row = getReader().readLine();
-                } while (row.length() == 0 && !stop);
-
+                final String row = readDataLine();
                 if (!stop) {
                     if (!row.startsWith("{\"last_seq\":")) {
-                        setNextRow(serializer.fromJson(row, Row.class));
+                        monitor.onRow(seqOf(row, serializer));
+                        nextLine = row;
+                        setNextRow(null); // parsed by next()
                         hasNext = true;
                     }
                 }
@@ -251,12 +430,161 @@ public class Changes<JoT, JeT> {
         } catch (Exception e) {
             terminate();
             throw new CouchDbException("Error reading continuous stream.", e);
+        } finally {
+            reading = false;
         }
         if (!hasNext)
             terminate();
         return hasNext;
     }
 
+    /**
+     * Reads up to the next row, skipping heartbeats and the event source fields other than <tt>event</tt> and
+     * <tt>data</tt>. Event source heartbeats are <tt>heartbeat</tt> events with an empty <tt>data</tt> field.
+     */
+    private String readDataLine() throws IOException {
+        while (!stop) {
+            final String line = getReader().readLine();
+            if (line == null) {
+                throw new EOFException("Feed closed by the server");
+            }
+            lastRead = System.nanoTime();
+            if (line.isEmpty()) {
+                if (inEvent) {
+                    inEvent = false; // end of an event
+                    eventType = null;
+                } else {
+                    monitor.onHeartbeat();
+                }
+            } else if (!eventSource) {
+                return line;
+            } else if (line.startsWith("event:")) {
+                inEvent = true;
+                eventType = fieldValue(line, 6);
+            } else if (line.startsWith("data:")) {
+                inEvent = true;
+                final String data = fieldValue(line, 5);
+                if ("heartbeat".equals(eventType) || data.trim().isEmpty()) {
+                    monitor.onHeartbeat();
+                } else {
+                    return data;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The value of an event source field, without the space following the colon.
+     */
+    private static String fieldValue(String line, int colon) {
+        return line.startsWith(" ", colon) ? line.substring(colon + 1) : line.substring(colon);
+    }
+
+    /**
+     * @return The selector or document ids filter sent as the request body, or {@code null} for a GET request.
+     */
+    private String getFilterJson() {
+        if (docIds != null) {
+            Map<String, Object> docIdsJson = new HashMap<>();
+            docIdsJson.put("doc_ids", docIds);
+            return serializer.toJson(docIdsJson);
+        }
+        return selector;
+    }
+
+    /**
+     * Parses the current line without its <tt>doc</tt> field, which is handed as JSON text to the converter.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> DocChange<T> nextChange(Function<String, T> docConverter) {
+        final String line = nextLine;
+        return parse(() -> {
+            final int[] doc = RawJson.locateField(line, "doc");
+            if (doc == null) {
+                return serializer.fromJson(line, DocChange.class);
+            }
+            final String docJson = line.substring(doc[0], doc[1]);
+            final DocChange<T> change = serializer.fromJson(
+                    line.substring(0, doc[0]) + "null" + line.substring(doc[1]), DocChange.class);
+            if (!"null".equals(docJson)) {
+                change.setDoc(docConverter.apply(docJson));
+            }
+            return change;
+        });
+    }
+
+    private <T> T parse(Supplier<T> parser) {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return parser.get();
+        } catch (RuntimeException e) {
+            throw new CouchDbException("Error reading continuous stream.", e);
+        }
+    }
+
+    private HttpUriRequestBase newRequest(URI uri) {
+        return getFilterJson() == null ? new HttpGet(uri) : new HttpPost(uri);
+    }
+
+    private InputStream openFeed(HttpUriRequestBase request) {
+        monitor.onConnect();
+        final InputStream in;
+        if (request instanceof HttpPost) {
+            in = dbc.post((HttpPost) request, getFilterJson());
+        } else {
+            in = dbc.get((HttpGet) request);
+        }
+        return monitor == NO_MONITOR ? in : new MonitoredInputStream(in, monitor);
+    }
+
+    /**
+     * @return The sequence of a continuous feed row, read without parsing the row.
+     */
+    static String seqOf(String row, Serializer<?, ?> serializer) {
+        final int[] seq = RawJson.locateField(row, "seq");
+        if (seq == null) {
+            return null;
+        }
+        final String json = row.substring(seq[0], seq[1]);
+        if (json.equals("null")) {
+            return null;
+        }
+        return json.startsWith("\"") ? serializer.fromJson(json, String.class) : json;
+    }
+
+    /**
+     * Reports the bytes read from a feed response.
+     */
+    private static class MonitoredInputStream extends FilterInputStream {
+        private final ChangesMonitor monitor;
+
+        MonitoredInputStream(InputStream in, ChangesMonitor monitor) {
+            super(in);
+            this.monitor = monitor;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                monitor.onBytes(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int count = super.read(b, off, len);
+            if (count > 0) {
+                monitor.onBytes(count);
+            }
+            return count;
+        }
+    }
+
     private BufferedReader getReader() {
         return reader;
     }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of changes handed by a {@link ChangesBatcher}: the latest change of each document, and the documents.
+ *
+ * @param <T> The type of the documents.
+ * @since 0.3.3
+ */
+public class ChangesBatch<T> {
+
+    private final List<Row> rows;
+    private final Map<String, T> docs;
+    private final String lastSeq;
+
+    ChangesBatch(List<Row> rows, Map<String, T> docs, String lastSeq) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.docs = Collections.unmodifiableMap(docs);
+        this.lastSeq = lastSeq;
+    }
+
+    /**
+     * @return The latest change of each document, in feed order.
+     */
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * @param id The document id.
+     * @return The document, or {@code null} if it is deleted.
+     */
+    public T getDoc(String id) {
+        return docs.get(id);
+    }
+
+    /**
+     * @return The documents that are not deleted, in feed order.
+     */
+    public List<T> getDocs() {
+        final List<T> result = new ArrayList<>(docs.size());
+        for (Row row : rows) {
+            final T doc = docs.get(row.getId());
+            if (doc != null) {
+                result.add(doc);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The sequence of the last change of the batch.
+     */
+    public String getLastSeq() {
+        return lastSeq;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Consumes the changes feed in batches, fetching the changed documents with one request per batch.
+ * <p>
+ * The feed is read without <tt>include_docs</tt> by a {@link ChangesFollower}. Rows are grouped until
+ * <tt>maxRows</tt> are pending or <tt>window</tt> milliseconds after the first one, reduced to the latest change of
+ * each document, then the documents are fetched with a single <tt>POST _all_docs?include_docs=true</tt> and the
+ * batch is handed to the handler. A handler or fetch failure retries the same batch with backoff.
+ * <p>
+ * The checkpoint is saved after each handled batch, a restart resumes after the last handled batch.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * ChangesBatcher&lt;Foo&gt; batcher = dbClient.changesBatcher(Foo.class, CheckpointStore.localDocument(dbClient, "indexer"))
+ *     .batch(500, 1000)
+ *     .start(batch -&gt; index(batch.getDocs()));
+ * batcher.close();
+ * </pre>
+ *
+ * @param <T> The type of the documents.
+ * @see CouchDbClientBase#changesBatcher(Class, CheckpointStore)
+ * @since 0.3.3
+ */
+public class ChangesBatcher<T> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangesBatcher.class);
+    private static final long MAX_RETRY_DELAY = 60000;
+    private static final long QUEUE_POLL = 100;
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final Class<T> classType;
+    private final CheckpointStore checkpoints;
+    private final ChangesFollower<?, ?> follower;
+    private int maxRows = 500;
+    private long window = 1000;
+
+    private BlockingQueue<Row> queue;
+    private Thread thread;
+    private volatile boolean stopped;
+
+    <JoT, JeT> ChangesBatcher(CouchDbClientBase<JoT, JeT> dbc, Class<T> classType, CheckpointStore checkpoints) {
+        assertNotEmpty(classType, "Class");
+        assertNotEmpty(checkpoints, "checkpoints");
+        this.dbc = dbc;
+        this.classType = classType;
+        this.checkpoints = checkpoints;
+        // the follower resumes from the checkpoint, saved here once a batch is handled
+        this.follower = new ChangesFollower<JoT, JeT>(dbc, new CheckpointStore() {
+            @Override
+            public String load() {
+                return checkpoints.load();
+            }
+
+            @Override
+            public void save(String seq) {
+                // see handle()
+            }
+        });
+    }
+
+    /**
+     * @param options Sets the feed options, see {@link ChangesFollower#configure(Consumer)}.
+     * @return {@link ChangesBatcher}
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public ChangesBatcher<T> configure(Consumer<Changes<?, ?>> options) {
+        assertNotEmpty(options, "options");
+        ((ChangesFollower) follower).configure(options);
+        return this;
+    }
+
+    /**
+     * @param maxRows The number of pending rows that triggers a batch.
+     * @param window The maximum time in milliseconds a row waits for its batch to fill.
+     * @return {@link ChangesBatcher}
+     */
+    public ChangesBatcher<T> batch(int maxRows, long window) {
+        CouchDbUtil.assertTrue(maxRows > 0, "maxRows must be positive");
+        CouchDbUtil.assertTrue(window >= 0, "window must not be negative");
+        this.maxRows = maxRows;
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * @param since The sequence to start from when no checkpoint is saved, see {@link ChangesFollower#since(String)}.
+     * @return {@link ChangesBatcher}
+     */
+    public ChangesBatcher<T> since(String since) {
+        follower.since(since);
+        return this;
+    }
+
+    /**
+     * Starts consuming the feed.
+     *
+     * @param handler Called with each batch, in order, from a dedicated thread.
+     * @return {@link ChangesBatcher}
+     */
+    public synchronized ChangesBatcher<T> start(Consumer<ChangesBatch<T>> handler) {
+        assertNotEmpty(handler, "handler");
+        if (thread != null) {
+            throw new IllegalStateException("ChangesBatcher is already started");
+        }
+        queue = new ArrayBlockingQueue<>(2 * maxRows);
+        thread = new Thread(() -> run(handler), "lightcouch-changes-batcher");
+        thread.setDaemon(true);
+        thread.start();
+        follower.start(this::enqueue);
+        return this;
+    }
+
+    /**
+     * Stops reading the feed, hands the pending rows then saves the checkpoint. A batch whose handler fails is given
+     * up, it is handled again after a restart.
+     */
+    @Override
+    public void close() {
+        stopped = true; // first, a failing handler would otherwise keep the follower blocked on a full queue
+        follower.close();
+        final Thread current = thread;
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Blocks the feed while the handler is behind, until the batcher is closed.
+     */
+    private void enqueue(Row row) {
+        try {
+            while (!queue.offer(row, QUEUE_POLL, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    throw new CouchDbException("ChangesBatcher is closed");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CouchDbException(e);
+        }
+    }
+
+    private void run(Consumer<ChangesBatch<T>> handler) {
+        final List<Row> rows = new ArrayList<>(maxRows);
+        long deadline = 0;
+        try {
+            while (true) {
+                final long timeout = rows.isEmpty() ? window : deadline - System.currentTimeMillis();
+                final Row row = queue.poll(Math.max(timeout, 1), TimeUnit.MILLISECONDS);
+                if (row != null) {
+                    if (rows.isEmpty()) {
+                        deadline = System.currentTimeMillis() + window;
+                    }
+                    rows.add(row);
+                }
+                final boolean drained = stopped && row == null && queue.isEmpty();
+                if (!rows.isEmpty() && (drained || rows.size() >= maxRows || System.currentTimeMillis() >= deadline)) {
+                    if (!handle(rows, handler)) {
+                        return;
+                    }
+                    rows.clear();
+                }
+                if (drained) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return false If the batcher was closed before the batch was handled.
+     */
+    private boolean handle(List<Row> rows, Consumer<ChangesBatch<T>> handler) throws InterruptedException {
+        final Map<String, Row> latest = new LinkedHashMap<>();
+        String lastSeq = null;
+        for (Row row : rows) {
+            latest.remove(row.getId()); // keep the feed order of the latest change
+            latest.put(row.getId(), row);
+            if (row.getSeq() != null) {
+                lastSeq = row.getSeq();
+            }
+        }
+        long delay = 100;
+        while (true) {
+            try {
+                handler.accept(new ChangesBatch<>(new ArrayList<>(latest.values()), fetch(latest), lastSeq));
+                break;
+            } catch (RuntimeException e) {
+                if (stopped) {
+                    log.warn("Batch of " + latest.size() + " changes not handled before close", e);
+                    return false;
+                }
+                log.warn("Error handling a batch of " + latest.size() + " changes, retrying in " + delay + " ms", e);
+                await(delay);
+                delay = Math.min(2 * delay, MAX_RETRY_DELAY);
+            }
+        }
+        if (lastSeq != null) {
+            try {
+                checkpoints.save(lastSeq);
+            } catch (RuntimeException e) {
+                log.warn("Error saving the changes checkpoint " + lastSeq, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sleeps for the retry delay, or until the batcher is closed.
+     */
+    private void await(long delay) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + delay;
+        for (long remaining = delay; remaining > 0 && !stopped; remaining = deadline - System.currentTimeMillis()) {
+            Thread.sleep(Math.min(remaining, QUEUE_POLL));
+        }
+    }
+
+    private Map<String, T> fetch(Map<String, Row> latest) {
+        final List<String> ids = new ArrayList<>(latest.size());
+        for (Row row : latest.values()) {
+            if (!row.isDeleted()) {
+                ids.add(row.getId());
+            }
+        }
+        final Map<String, T> docs = new HashMap<>();
+        if (ids.isEmpty()) {
+            return docs;
+        }
+        final View<?, ?> view = dbc.view("_all_docs");
+        view.includeDocs(true);
+        view.keys(ids);
+        final ViewResult<String, Object, T> result = view.queryView(String.class, null, classType);
+        for (ViewResult<String, Object, T>.Rows row : result.getRows()) {
+            if (row.getDoc() != null) { // null if deleted since the change
+                docs.put(row.getKey(), row.getDoc());
+            }
+        }
+        return docs;
+    }
+}
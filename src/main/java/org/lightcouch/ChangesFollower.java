@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Follows the continuous changes feed across connection failures and restarts.
+ * <p>
+ * When the feed fails, the follower reconnects with exponential backoff and resumes from the sequence of the last
+ * change the listener processed. That sequence is saved to a {@link CheckpointStore} every <tt>checkpointRows</tt>
+ * changes or <tt>checkpointInterval</tt> milliseconds, and when the follower is closed; on start the follower resumes
+ * from the saved checkpoint. Delivery is at least once: the changes processed after the last checkpoint, or a change
+ * whose listener threw, are delivered again.
+ * <p>
+ * The feed options are set on each new {@link Changes} request. A heartbeat lets the follower detect a dead connection
+ * before the socket timeout, or sooner with a {@link #stallTimeout(long) stall timeout}.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * ChangesFollower&lt;?, ?&gt; follower = dbClient.changesFollower(CheckpointStore.localDocument(dbClient, "indexer"))
+ *     .configure(changes -&gt; changes.includeDocs(true).heartBeat(30000))
+ *     .start(row -&gt; index(row));
+ * // at shutdown, saves the checkpoint
+ * follower.close();
+ * </pre>
+ *
+ * @see CouchDbClientBase#changesFollower(CheckpointStore)
+ * @since 0.3.3
+ */
+public class ChangesFollower<JoT, JeT> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangesFollower.class);
+
+    private final CouchDbClientBase<JoT, JeT> dbc;
+    private final CheckpointStore checkpoints;
+    private Consumer<Changes<JoT, JeT>> options = changes -> {
+    };
+    private String initialSince;
+    private int checkpointRows = 1000;
+    private long checkpointInterval = 5000;
+    private long initialBackoff = 100;
+    private long maxBackoff = 60000;
+    private long stallTimeout;
+    private boolean reportsProcessed = true;
+
+    private final Object lock = new Object();
+    private Thread thread;
+    private Changes<JoT, JeT> changes;
+    private volatile boolean stopped;
+    private volatile String since;
+    private String checkpointed;
+
+    ChangesFollower(CouchDbClientBase<JoT, JeT> dbc, CheckpointStore checkpoints) {
+        assertNotEmpty(checkpoints, "checkpoints");
+        this.dbc = dbc;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * @param options Sets the feed options, such as filter, <tt>include_docs</tt> or heartbeat. Called for each
+     *            connection, the <tt>since</tt> option is set by the follower.
+     * @return {@link ChangesFollower}
+     */
+    public ChangesFollower<JoT, JeT> configure(Consumer<Changes<JoT, JeT>> options) {
+        assertNotEmpty(options, "options");
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * @param since The sequence to start from when no checkpoint is saved, e.g. <tt>now</tt>. Defaults to the
+     *            beginning of the feed.
+     * @return {@link ChangesFollower}
+     */
+    public ChangesFollower<JoT, JeT> since(String since) {
+        this.initialSince = since;
+        return this;
+    }
+
+    /**
+     * @param rows The number of processed changes that triggers a checkpoint.
+     * @param interval The maximum time in milliseconds between checkpoints of processed changes.
+     * @return {@link ChangesFollower}
+     */
+    public ChangesFollower<JoT, JeT> checkpointEvery(int rows, long interval) {
+        CouchDbUtil.assertTrue(rows > 0, "rows must be positive");
+        CouchDbUtil.assertTrue(interval >= 0, "interval must not be negative");
+        this.checkpointRows = rows;
+        this.checkpointInterval = interval;
+        return this;
+    }
+
+    /**
+     * @param initialDelay The delay in milliseconds before the first reconnection, also the delay before reconnecting a
+     *            feed that ended normally, e.g. with a <tt>limit</tt> or <tt>timeout</tt> option.
+     * @param maxDelay The maximum delay in milliseconds, the delay doubles after each failed attempt.
+     * @return {@link ChangesFollower}
+     */
+    public ChangesFollower<JoT, JeT> backoff(long initialDelay, long maxDelay) {
+        CouchDbUtil.assertTrue(initialDelay > 0 && maxDelay >= initialDelay, "invalid backoff delays");
+        this.initialBackoff = initialDelay;
+        this.maxBackoff = maxDelay;
+        return this;
+    }
+
+    /**
+     * Aborts and reconnects the feed when it sends no row nor heartbeat for the given time, e.g. when a proxy keeps
+     * a dead connection open. The timeout should be a few times the heartbeat interval.
+     *
+     * @param timeout The maximum time in milliseconds without rows or heartbeats, 0 to disable the detection.
+     * @return {@link ChangesFollower}
+     * @see ChangesMonitor#onStall(long)
+     */
+    public ChangesFollower<JoT, JeT> stallTimeout(long timeout) {
+        CouchDbUtil.assertTrue(timeout >= 0, "timeout must not be negative");
+        this.stallTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * Leaves the report of the processed rows to the monitor to the caller, through {@link #processed(String)}, for
+     * listeners handing the rows over to other threads.
+     */
+    ChangesFollower<JoT, JeT> reportProcessedByCaller() {
+        this.reportsProcessed = false;
+        return this;
+    }
+
+    /**
+     * Reports the sequence processed so far to the monitor of the current feed.
+     */
+    void processed(String seq) {
+        synchronized (lock) {
+            if (changes != null) {
+                changes.processed(seq);
+            }
+        }
+    }
+
+    /**
+     * Starts following the feed on a dedicated thread.
+     *
+     * @param listener Called for each change, in order.
+     * @return {@link ChangesFollower}
+     */
+    public ChangesFollower<JoT, JeT> start(Consumer<Row> listener) {
+        assertNotEmpty(listener, "listener");
+        synchronized (lock) {
+            if (thread != null) {
+                throw new IllegalStateException("ChangesFollower is already started");
+            }
+            thread = new Thread(() -> follow(listener), "lightcouch-changes-follower");
+            thread.setDaemon(true);
+            thread.start();
+            if (stallTimeout > 0) {
+                final Thread detector = new Thread(this::detectStalls, "lightcouch-changes-stall-detector");
+                detector.setDaemon(true);
+                detector.start();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return The sequence of the last processed change, or {@code null} if none.
+     */
+    public String getSince() {
+        return since;
+    }
+
+    /**
+     * Stops following the feed, waiting for the current change to be processed, then saves the checkpoint.
+     */
+    @Override
+    public void close() {
+        final Thread current;
+        synchronized (lock) {
+            stopped = true;
+            current = thread;
+            if (changes != null) {
+                changes.abort();
+            }
+            lock.notifyAll();
+        }
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void follow(Consumer<Row> listener) {
+        int failures = 0;
+        try {
+            since = checkpoints.load();
+            checkpointed = since;
+            if (since == null) {
+                since = initialSince;
+            }
+        } catch (RuntimeException e) {
+            log.error("Error loading the changes checkpoint, not following the changes", e);
+            return;
+        }
+        long lastCheckpoint = System.currentTimeMillis();
+        int uncheckpointed = 0;
+        while (!stopped) {
+            try {
+                final Changes<JoT, JeT> feed = dbc.changes();
+                options.accept(feed);
+                if (since != null) {
+                    feed.since(since);
+                }
+                synchronized (lock) {
+                    if (stopped) {
+                        break;
+                    }
+                    changes = feed;
+                }
+                feed.continuousChanges();
+                while (feed.hasNext()) {
+                    final Row row = feed.next();
+                    failures = 0;
+                    listener.accept(row);
+                    if (row.getSeq() != null) { // not set on every row with seq_interval
+                        since = row.getSeq();
+                        if (reportsProcessed) {
+                            feed.processed(since);
+                        }
+                    }
+                    uncheckpointed++;
+                    if (uncheckpointed >= checkpointRows || System.currentTimeMillis() - lastCheckpoint >= checkpointInterval) {
+                        checkpoint();
+                        uncheckpointed = 0;
+                        lastCheckpoint = System.currentTimeMillis();
+                    }
+                }
+                synchronized (lock) {
+                    changes = null;
+                }
+                await(initialBackoff); // a feed ending on each request must not reconnect in a tight loop
+            } catch (RuntimeException e) {
+                if (stopped) {
+                    break;
+                }
+                synchronized (lock) {
+                    changes = null;
+                }
+                final long delay = backoff(failures++);
+                log.warn("Changes feed failed, resuming from " + since + " in " + delay + " ms", e);
+                await(delay);
+            }
+        }
+        checkpoint();
+    }
+
+    private void detectStalls() {
+        synchronized (lock) {
+            while (!stopped) {
+                if (changes != null) {
+                    final long idle = changes.getIdleMillis();
+                    if (idle >= stallTimeout) {
+                        log.warn("Changes feed stalled for " + idle + " ms, reconnecting");
+                        changes.stalled(idle);
+                        changes = null;
+                    }
+                }
+                try {
+                    lock.wait(Math.max(1, stallTimeout / 4));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void checkpoint() {
+        final String seq = since;
+        if (seq == null || seq.equals(checkpointed)) {
+            return;
+        }
+        try {
+            checkpoints.save(seq);
+            checkpointed = seq;
+        } catch (RuntimeException e) {
+            log.warn("Error saving the changes checkpoint " + seq, e);
+        }
+    }
+
+    /**
+     * @return The delay before the next attempt, doubling on each failure, with jitter.
+     */
+    private long backoff(int failures) {
+        final long delay = Math.min(maxBackoff, initialBackoff << Math.min(failures, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void await(long delay) {
+        final long deadline = System.currentTimeMillis() + delay;
+        synchronized (lock) {
+            long remaining = delay;
+            while (!stopped && remaining > 0) {
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Shares one continuous changes feed between many listeners of a client.
+ * <p>
+ * The feed is opened with the first subscription, from the current sequence, and closed with the last one. It is
+ * followed by a {@link ChangesFollower}, which reconnects on failures. Each row is parsed once and handed to the
+ * subscriptions whose filter accepts it.
+ * <p>
+ * Each subscription has its own bounded queue and thread, so a slow listener does not delay the others unless its
+ * {@link Overflow} policy is {@link Overflow#BLOCK}.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * ChangesHub hub = dbClient.changesHub();
+ * ChangesHub.Subscription foos = hub.subscribe(row -&gt; row.getId().startsWith("foo:"), row -&gt; ..., 1000,
+ *         ChangesHub.Overflow.DROP_OLDEST);
+ * foos.close();
+ * </pre>
+ *
+ * @see CouchDbClientBase#changesHub()
+ * @since 0.3.3
+ */
+public class ChangesHub implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangesHub.class);
+
+    /**
+     * What a subscription does with a row when its queue is full.
+     */
+    public enum Overflow {
+        /** Waits for room in the queue, holding back the feed for all the subscriptions. */
+        BLOCK,
+        /** Discards the oldest queued row. */
+        DROP_OLDEST,
+        /** Discards the new row. */
+        DROP_NEWEST,
+        /** Closes the subscription. */
+        UNSUBSCRIBE
+    }
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger threads = new AtomicInteger();
+    private Consumer<Changes<?, ?>> options = changes -> {
+    };
+    private ChangesFollower<?, ?> follower;
+
+    ChangesHub(CouchDbClientBase<?, ?> dbc) {
+        this.dbc = dbc;
+    }
+
+    /**
+     * @param options Sets the options of the shared feed, such as <tt>include_docs</tt> or heartbeat. Applies from
+     *            the next time the feed is opened.
+     * @return {@link ChangesHub}
+     */
+    public synchronized ChangesHub configure(Consumer<Changes<?, ?>> options) {
+        assertNotEmpty(options, "options");
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Subscribes to all the changes, dropping the oldest rows past 1000 queued rows.
+     *
+     * @param listener Called for each change, in order.
+     * @return {@link Subscription}
+     */
+    public Subscription subscribe(Consumer<Row> listener) {
+        return subscribe(row -> true, listener, 1000, Overflow.DROP_OLDEST);
+    }
+
+    /**
+     * @param filter Selects the changes of this subscription, called on the feed thread.
+     * @param listener Called for each selected change, in order, on the subscription thread.
+     * @param capacity The maximum number of queued rows.
+     * @param overflow The policy when the queue is full.
+     * @return {@link Subscription}
+     */
+    public synchronized Subscription subscribe(Predicate<Row> filter, Consumer<Row> listener, int capacity,
+            Overflow overflow) {
+        assertNotEmpty(filter, "filter");
+        assertNotEmpty(listener, "listener");
+        assertNotEmpty(overflow, "overflow");
+        CouchDbUtil.assertTrue(capacity > 0, "capacity must be positive");
+        final Subscription subscription = new Subscription(filter, listener, capacity, overflow);
+        subscriptions.add(subscription);
+        if (follower == null) {
+            follower = open();
+        }
+        return subscription;
+    }
+
+    /**
+     * @return The number of active subscriptions.
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Closes all the subscriptions and the feed.
+     */
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ChangesFollower<?, ?> open() {
+        final ChangesFollower<?, ?> feed = dbc.changesFollower(new CheckpointStore() {
+            @Override
+            public String load() {
+                return null;
+            }
+
+            @Override
+            public void save(String seq) {
+                // from now on, resumes in memory after a failure
+            }
+        });
+        ((ChangesFollower) feed).configure(options);
+        return feed.since("now").start(this::publish);
+    }
+
+    private void publish(Row row) {
+        for (Subscription subscription : subscriptions) {
+            final boolean selected;
+            try {
+                selected = subscription.filter.test(row);
+            } catch (RuntimeException e) {
+                log.warn("Error filtering change of " + row.getId(), e);
+                continue;
+            }
+            if (selected) {
+                subscription.offer(row);
+            }
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        final ChangesFollower<?, ?> closed;
+        synchronized (this) {
+            if (!subscriptions.remove(subscription) || !subscriptions.isEmpty()) {
+                return;
+            }
+            closed = follower;
+            follower = null;
+        }
+        if (closed != null) {
+            closed.close();
+        }
+    }
+
+    /**
+     * A listener of the shared feed.
+     */
+    public class Subscription implements Closeable {
+        private final Predicate<Row> filter;
+        private final Consumer<Row> listener;
+        private final Overflow overflow;
+        private final BlockingQueue<Row> queue;
+        private final LongAdder dropped = new LongAdder();
+        private volatile boolean active = true;
+
+        Subscription(Predicate<Row> filter, Consumer<Row> listener, int capacity, Overflow overflow) {
+            this.filter = filter;
+            this.listener = listener;
+            this.overflow = overflow;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            final Thread thread = new Thread(this::run, "lightcouch-changes-hub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * @return The number of rows discarded by the overflow policy.
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * @return false Once the subscription is closed.
+         */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Stops the subscription, discarding its queued rows.
+         */
+        @Override
+        public void close() {
+            active = false;
+            queue.clear();
+            unsubscribe(this);
+        }
+
+        /**
+         * Called on the feed thread.
+         */
+        void offer(Row row) {
+            if (!active || queue.offer(row)) {
+                return;
+            }
+            switch (overflow) {
+                case BLOCK:
+                    try {
+                        while (active && !queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                            // until closed
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(row)) {
+                        if (queue.poll() != null) {
+                            dropped.increment();
+                        }
+                    }
+                    break;
+                case DROP_NEWEST:
+                    dropped.increment();
+                    break;
+                case UNSUBSCRIBE:
+                    log.warn("Changes subscription overflow, unsubscribing");
+                    dropped.increment();
+                    close();
+                    break;
+            }
+        }
+
+        private void run() {
+            try {
+                while (active) {
+                    final Row row = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (row != null && active) {
+                        try {
+                            listener.accept(row);
+                        } catch (RuntimeException e) {
+                            log.warn("Error in changes listener for " + row.getId(), e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
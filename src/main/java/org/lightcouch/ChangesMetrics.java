@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the activity of changes feeds: rows, heartbeats, bytes and connections, with the row rate, the time since
+ * the last activity and the lag behind the database. The rows processed by a {@link ChangesFollower} listener are
+ * reported separately from the rows read, so that the lag counts the changes not processed yet.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * ChangesMetrics metrics = new ChangesMetrics();
+ * dbClient.changesFollower(checkpoints)
+ *     .configure(changes -&gt; changes.heartBeat(10000).monitor(metrics))
+ *     .stallTimeout(30000)
+ *     .start(row -&gt; ...);
+ * // from a metrics reporter
+ * metrics.getIdleMillis();
+ * metrics.getLag(dbClient.context());
+ * </pre>
+ *
+ * @since 0.3.3
+ */
+public class ChangesMetrics implements ChangesMonitor {
+
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private volatile long lastActivity = System.nanoTime();
+    private volatile String lastSeq;
+    private volatile String processedSeq;
+
+    private long rateTime = System.nanoTime();
+    private long rateRows;
+    private double rate;
+
+    @Override
+    public void onConnect() {
+        connects.increment();
+        lastActivity = System.nanoTime();
+    }
+
+    @Override
+    public void onRow(String seq) {
+        rows.increment();
+        if (seq != null) {
+            lastSeq = seq;
+        }
+        lastActivity = System.nanoTime();
+    }
+
+    @Override
+    public void onProcessed(String seq) {
+        processedSeq = seq;
+    }
+
+    @Override
+    public void onHeartbeat() {
+        heartbeats.increment();
+        lastActivity = System.nanoTime();
+    }
+
+    @Override
+    public void onBytes(int count) {
+        bytes.add(count);
+    }
+
+    @Override
+    public void onStall(long idleMillis) {
+        stalls.increment();
+    }
+
+    /**
+     * @return The time in milliseconds since the last row, heartbeat or connection.
+     */
+    public long getIdleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+    }
+
+    /**
+     * @return The number of rows read.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * @return The number of heartbeats read.
+     */
+    public long getHeartbeats() {
+        return heartbeats.sum();
+    }
+
+    /**
+     * @return The number of bytes read.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return The number of feed requests after the first one.
+     */
+    public long getReconnects() {
+        return Math.max(0, connects.sum() - 1);
+    }
+
+    /**
+     * @return The number of feeds aborted by a stall detector.
+     */
+    public long getStalls() {
+        return stalls.sum();
+    }
+
+    /**
+     * @return The sequence of the last row read, or {@code null} if none.
+     */
+    public String getLastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * @return The sequence of the last row processed by a {@link ChangesFollower} listener, or {@code null} if none.
+     */
+    public String getProcessedSeq() {
+        return processedSeq;
+    }
+
+    /**
+     * @return The rows read per second, measured over the interval of at least one second that ended with the
+     *         latest call, or 0 until one second has elapsed.
+     */
+    public synchronized double getRowsPerSecond() {
+        final long now = System.nanoTime();
+        final long elapsed = now - rateTime;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            final long total = rows.sum();
+            rate = (total - rateRows) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            rateRows = total;
+            rateTime = now;
+        }
+        return rate;
+    }
+
+    /**
+     * Compares the last sequence processed by a {@link ChangesFollower} listener with the update sequence of the
+     * database, sending a request. For a feed read without a follower, the last sequence read is compared instead.
+     * <p>
+     * On CouchDB 2.0 and later the numeric prefix of the sequences sums the shard sequences, the lag is then an
+     * approximate number of changes.
+     *
+     * @param context The context of the client of the followed database.
+     * @return The number of changes not processed yet, or -1 if no row has been read.
+     */
+    public long getLag(CouchDbContext<?, ?> context) {
+        final String seq = processedSeq != null ? processedSeq : lastSeq;
+        if (seq == null) {
+            return -1;
+        }
+        return Math.max(0, seqNumber(context.info().getUpdateSeq()) - seqNumber(seq));
+    }
+
+    @Override
+    public String toString() {
+        return "ChangesMetrics [rows=" + getRows() + ", heartbeats=" + getHeartbeats() + ", bytes=" + getBytes()
+                + ", reconnects=" + getReconnects() + ", stalls=" + getStalls() + ", idleMillis=" + getIdleMillis()
+                + "]";
+    }
+
+    /**
+     * @return The numeric prefix of a sequence, e.g. 42 for <tt>42-g1AAAA...</tt>.
+     */
+    static long seqNumber(String seq) {
+        final int dash = seq.indexOf('-');
+        try {
+            return Long.parseLong(dash < 0 ? seq : seq.substring(0, dash));
+        } catch (NumberFormatException e) {
+            throw new CouchDbException("Unsupported sequence format: " + seq, e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+/**
+ * Receives the events of changes feeds, for metrics and liveness checks.
+ * <p>
+ * Methods are called on the thread reading the feed and should return quickly. The same monitor can be set on
+ * successive feeds, e.g. on each connection of a {@link ChangesFollower}, to count reconnections.
+ *
+ * @see Changes#monitor(ChangesMonitor)
+ * @see ChangesMetrics
+ * @since 0.3.3
+ */
+public interface ChangesMonitor {
+
+    /**
+     * Called when a feed request is sent.
+     */
+    default void onConnect() {
+    }
+
+    /**
+     * Called for each row read from a continuous feed.
+     *
+     * @param seq The sequence of the row, {@code null} for the rows without one when using <tt>seq_interval</tt>.
+     */
+    default void onRow(String seq) {
+    }
+
+    /**
+     * Called by a {@link ChangesFollower} once its listener processed a row.
+     *
+     * @param seq The sequence of the row.
+     */
+    default void onProcessed(String seq) {
+    }
+
+    /**
+     * Called for each heartbeat read from a continuous feed.
+     */
+    default void onHeartbeat() {
+    }
+
+    /**
+     * Called as the response body is read.
+     *
+     * @param count The number of bytes read.
+     */
+    default void onBytes(int count) {
+    }
+
+    /**
+     * Called when a {@link ChangesFollower} aborts a feed that stopped sending rows and heartbeats.
+     *
+     * @param idleMillis The time since the last row or heartbeat.
+     */
+    default void onStall(long idleMillis) {
+    }
+}
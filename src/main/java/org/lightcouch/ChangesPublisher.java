@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.lightcouch.ChangesResult.Row;
+import org.lightcouch.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes a continuous changes feed, one feed request per subscription.
+ * <p>
+ * The feed is read on a dedicated thread, a line is read only when the subscriber has requested a row: with no
+ * demand the reads pause and the server is held back by TCP flow control. Cancelling aborts the request, the
+ * connection is discarded rather than returned half read to the pool.
+ *
+ * @see Changes#continuousChangesPublisher()
+ * @since 0.3.3
+ */
+class ChangesPublisher implements Flow.Publisher<Row> {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangesPublisher.class);
+
+    private final Supplier<HttpUriRequestBase> requests;
+    private final Function<HttpUriRequestBase, InputStream> executor;
+    private final Serializer<?, ?> serializer;
+    private final ChangesMonitor monitor;
+
+    ChangesPublisher(Supplier<HttpUriRequestBase> requests, Function<HttpUriRequestBase, InputStream> executor,
+            Serializer<?, ?> serializer, ChangesMonitor monitor) {
+        this.requests = requests;
+        this.executor = executor;
+        this.serializer = serializer;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Row> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        final FeedSubscription subscription = new FeedSubscription(subscriber, requests.get());
+        final Thread thread = new Thread(subscription::run, "lightcouch-changes-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Row> subscriber;
+        private final HttpUriRequestBase request;
+        private final Object lock = new Object();
+        private long demand;
+        private boolean cancelled;
+        private Throwable invalidRequest;
+
+        FeedSubscription(Flow.Subscriber<? super Row> subscriber, HttpUriRequestBase request) {
+            this.subscriber = subscriber;
+            this.request = request;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) { // rule 3.9, signalled by the reading thread
+                synchronized (lock) {
+                    invalidRequest = new IllegalArgumentException("Requested rows must be positive: " + n);
+                }
+                cancel();
+                return;
+            }
+            synchronized (lock) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                lock.notifyAll();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (lock) {
+                cancelled = true;
+                lock.notifyAll();
+            }
+            request.cancel(); // unblocks a pending read
+        }
+
+        void run() {
+            BufferedReader reader = null;
+            try {
+                subscriber.onSubscribe(this);
+                if (!awaitDemand()) {
+                    return;
+                }
+                final InputStream in = executor.apply(request);
+                reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                while (awaitDemand()) {
+                    final String line = reader.readLine();
+                    if (line == null || line.startsWith("{\"last_seq\":")) { // feed ended by the server
+                        if (!isCancelled()) {
+                            subscriber.onComplete();
+                        }
+                        return;
+                    }
+                    if (line.isEmpty()) { // heartbeat
+                        monitor.onHeartbeat();
+                        continue;
+                    }
+                    final Row row = serializer.fromJson(line, Row.class);
+                    monitor.onRow(row.getSeq());
+                    synchronized (lock) {
+                        demand--;
+                    }
+                    subscriber.onNext(row);
+                }
+            } catch (Exception e) {
+                if (markCancelled()) {
+                    subscriber.onError(e instanceof CouchDbException ? e : new CouchDbException("Error reading continuous stream.", e));
+                } else {
+                    log.debug("Changes feed closed: {}", e.toString());
+                }
+            } finally {
+                request.cancel();
+                CouchDbUtil.close(reader);
+                final Throwable invalid;
+                synchronized (lock) {
+                    invalid = invalidRequest;
+                }
+                if (invalid != null) {
+                    subscriber.onError(invalid);
+                }
+            }
+        }
+
+        /**
+         * @return false If the subscription is cancelled.
+         */
+        private boolean awaitDemand() throws InterruptedException {
+            synchronized (lock) {
+                while (demand == 0 && !cancelled) {
+                    lock.wait();
+                }
+                return !cancelled;
+            }
+        }
+
+        /**
+         * @return false If the subscription was already cancelled.
+         */
+        private boolean markCancelled() {
+            synchronized (lock) {
+                final boolean wasCancelled = cancelled;
+                cancelled = true;
+                return !wasCancelled;
+            }
+        }
+
+        private boolean isCancelled() {
+            synchronized (lock) {
+                return cancelled;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row;
+
+import java.util.function.Function;
+
+/**
+ * The rows of a <i>normal</i> changes feed, read from the response as they are iterated.
+ * <p>
+ * The <tt>last_seq</tt> and <tt>pending</tt> fields follow the rows in the response, they are available once the
+ * rows are read to the end. The stream should be closed if it is not read to the end, as to avoid connection leaks.
+ *
+ * @see Changes#getChangesStream()
+ * @since 0.3.3
+ */
+public class ChangesStream implements CloseableIterator<Row> {
+
+    private final CloseableIterator<Row> rows;
+    private final Function<String, String> fields;
+    private boolean ended;
+
+    /**
+     * @param fields Returns the value of a response field as a string.
+     */
+    ChangesStream(CloseableIterator<Row> rows, Function<String, String> fields) {
+        this.rows = rows;
+        this.fields = fields;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ended) {
+            return false;
+        }
+        ended = !rows.hasNext();
+        return !ended;
+    }
+
+    @Override
+    public Row next() {
+        return rows.next();
+    }
+
+    /**
+     * @return The <tt>last_seq</tt> of the response, to resume from, or {@code null} until the rows are read to the
+     *         end.
+     */
+    public String getLastSeq() {
+        return ended ? fields.apply("last_seq") : null;
+    }
+
+    /**
+     * @return The number of changes after <tt>last_seq</tt>, or {@code null} until the rows are read to the end or if
+     *         not returned by the server (before CouchDB 2.0).
+     */
+    public Long getPending() {
+        final String pending = ended ? fields.apply("pending") : null;
+        return pending == null ? null : Long.valueOf(pending);
+    }
+
+    @Override
+    public void close() {
+        rows.close();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.nio.file.Path;
+
+/**
+ * Persists the sequence a changes consumer has processed up to, so that it resumes from there after a restart.
+ *
+ * @see ChangesFollower
+ * @since 0.3.3
+ */
+public interface CheckpointStore {
+
+    /**
+     * @return The last saved sequence, or {@code null} if none was saved.
+     */
+    String load();
+
+    /**
+     * @param seq The sequence of the last processed change.
+     */
+    void save(String seq);
+
+    /**
+     * Stores the checkpoint in a <tt>_local</tt> document of the database, which is not replicated.
+     *
+     * @param dbc The client of the database.
+     * @param name The checkpoint name, unique per consumer.
+     * @return {@link CheckpointStore}
+     */
+    static CheckpointStore localDocument(CouchDbClientBase<?, ?> dbc, String name) {
+        return new LocalDocumentCheckpointStore(dbc, name);
+    }
+
+    /**
+     * Stores the checkpoint in a local file, replaced atomically on each save.
+     *
+     * @param file The checkpoint file.
+     * @return {@link CheckpointStore}
+     */
+    static CheckpointStore file(Path file) {
+        return new FileCheckpointStore(file);
+    }
+}
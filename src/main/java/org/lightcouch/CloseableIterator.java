@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An {@link Iterator} reading its elements from an open HTTP response.
+ * <p>
+ * The iterator releases the connection once all the elements are read. It must be closed if abandoned before the
+ * end, preferably in a <code>try-with-resources</code> block.
+ *
+ * @param <T> The type of the elements.
+ * @since 0.3.3
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    /**
+     * Releases the underlying response; the connection is aborted if the elements were not all read.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.CouchDbUtil.close;
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Maintains a CouchDB <tt>_session</tt> cookie for the whole connection pool of a client.
+ * <p>
+ * The session logs in once against <tt>/_session</tt> and sends the <tt>AuthSession</tt> cookie with every request,
+ * so the server does not have to verify the password hash per request as it does with Basic authentication. The
+ * cookie is renewed before it expires, refreshed cookies sent by the server are picked up, and a request rejected with
+ * <tt>401</tt> is transparently repeated once after logging in again.
+ * <p>
+ * Installed in the request execution chain right after the protocol stage; the client leaves <tt>401</tt> responses
+ * for the session to validate once re-authentication was attempted.
+ *
+ * @see CouchDbProperties#setCookieAuth(boolean)
+ * @since 0.3.3
+ */
+class CookieSession implements ExecChainHandler {
+
+    static final String COOKIE_NAME = "AuthSession";
+
+    /** CouchDB default session timeout, used when the cookie has no <tt>Max-Age</tt> */
+    private static final long DEFAULT_SESSION_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private static final String LOGIN_ATTRIBUTE = "lightcouch.session.login";
+
+    private final String username;
+    private final char[] password;
+    private final URI sessionUri;
+    private final HttpHost host;
+    private CloseableHttpClient httpClient;
+
+    private volatile String cookie;
+    private volatile long refreshAt;
+
+    CookieSession(CouchDbProperties props) {
+        assertNotEmpty(props.getUsername(), "Username");
+        assertNotEmpty(props.getPassword(), "Password");
+        this.username = props.getUsername();
+        this.password = props.getPassword().toCharArray();
+        props.clearPassword();
+        final String path = props.getPath() != null ? props.getPath() : "";
+        this.sessionUri = buildUri().scheme(props.getProtocol()).host(props.getHost()).port(props.getPort()).path("/")
+                .path(path).path("_session").build();
+        this.host = new HttpHost(props.getProtocol(), props.getHost(), props.getPort());
+    }
+
+    /**
+     * Binds the session to the client executing its requests and logs in.
+     */
+    void start(CloseableHttpClient httpClient) {
+        this.httpClient = httpClient;
+        login(null);
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+            throws IOException, HttpException {
+        if (scope.clientContext.getAttribute(LOGIN_ATTRIBUTE) != null) {
+            return chain.proceed(request, scope);
+        }
+        if (System.currentTimeMillis() >= refreshAt) {
+            login(cookie);
+        }
+        final String sent = cookie;
+        request.setHeader("Cookie", COOKIE_NAME + "=" + sent);
+        final Header[] headers = request.getHeaders();
+        ClassicHttpResponse response = chain.proceed(request, scope);
+        update(response);
+        if (response.getCode() == HttpStatus.SC_UNAUTHORIZED
+                && (request.getEntity() == null || request.getEntity().isRepeatable())) {
+            EntityUtils.consume(response.getEntity());
+            response.close();
+            login(sent);
+            request.setHeaders(headers); // drop the headers added by the protocol processor
+            request.setHeader("Cookie", COOKIE_NAME + "=" + cookie);
+            response = chain.proceed(request, scope);
+            update(response);
+        }
+        if (response.getCode() == HttpStatus.SC_UNAUTHORIZED) {
+            EntityUtils.consume(response.getEntity());
+            response.close();
+            CouchDbClientBase.validate(response);
+        }
+        return response;
+    }
+
+    /**
+     * Logs in, unless another thread already replaced the <code>stale</code> cookie.
+     */
+    private synchronized void login(String stale) {
+        if (cookie != null && !cookie.equals(stale) && System.currentTimeMillis() < refreshAt) {
+            return;
+        }
+        final HttpPost post = new HttpPost(sessionUri);
+        post.setEntity(new StringEntity("name=" + encode(username) + "&password=" + encode(new String(password)),
+                ContentType.APPLICATION_FORM_URLENCODED));
+        final HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(LOGIN_ATTRIBUTE, Boolean.TRUE);
+        ClassicHttpResponse response = null;
+        try {
+            response = httpClient.executeOpen(host, post, context);
+            CouchDbClientBase.validate(response);
+            if (!update(response)) {
+                throw new CouchDbException("Session login did not return an " + COOKIE_NAME + " cookie.");
+            }
+        } catch (IOException e) {
+            throw new CouchDbException("Error executing session login. ", e);
+        } finally {
+            if (response != null) {
+                close(response);
+            }
+        }
+    }
+
+    /**
+     * Keeps a cookie issued or refreshed by the server.
+     *
+     * @return true If the response carried a session cookie.
+     */
+    private boolean update(ClassicHttpResponse response) {
+        for (Header header : response.getHeaders("Set-Cookie")) {
+            final String value = header.getValue();
+            if (!value.startsWith(COOKIE_NAME + "=")) {
+                continue;
+            }
+            final String[] attributes = value.split(";");
+            final String token = attributes[0].substring(COOKIE_NAME.length() + 1);
+            if (token.isEmpty()) { // session cleared by the server
+                refreshAt = 0;
+                return false;
+            }
+            long timeout = DEFAULT_SESSION_TIMEOUT;
+            for (String attribute : attributes) {
+                final String attr = attribute.trim();
+                if (attr.regionMatches(true, 0, "Max-Age=", 0, 8)) {
+                    timeout = TimeUnit.SECONDS.toMillis(Long.parseLong(attr.substring(8)));
+                }
+            }
+            cookie = token;
+            refreshAt = System.currentTimeMillis() + timeout * 9 / 10; // renew ahead of expiry
+            return true;
+        }
+        return false;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.auth.AuthCache;
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.cookie.StandardCookieSpec;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.impl.auth.BasicScheme;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.lightcouch.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.CouchDbUtil.assertNull;
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Presents a non-blocking <i>client</i> to CouchDB database server.
+ * <p>
+ * Requests are executed by an Apache HttpClient {@link CloseableHttpAsyncClient}, so a large number of in-flight
+ * requests is served by a small, fixed number of I/O threads. Every operation returns a {@link CompletableFuture}
+ * which completes with the same result the blocking {@link CouchDbClient} API returns, or exceptionally with the same
+ * {@link CouchDbException} types.
+ * <p>
+ * Response bodies are deserialized on the <code>executor</code> given to the client (the common
+ * {@link ForkJoinPool} by default), never on the I/O threads.
+ * <p>
+ * With {@link CouchDbProperties#setHttp2(boolean)} the client uses HTTP/2 and multiplexes all concurrent requests
+ * over a single connection to the server, instead of a pool of {@link CouchDbProperties#getMaxConnections()}
+ * HTTP/1.1 connections. CouchDB itself speaks HTTP/1.1, so this requires an HTTP/2 capable front end such as a TLS
+ * terminating proxy.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * CouchDbAsyncClient&lt;JsonObject, JsonElement&gt; client = new CouchDbAsyncClient&lt;&gt;(properties, new GsonSerializer());
+ *
+ * client.save(new Foo())
+ *     .thenCompose(response -&gt; client.find(Foo.class, response.getId()))
+ *     .thenAccept(foo -&gt; ...);
+ *
+ * CompletableFuture&lt;List&lt;Foo&gt;&gt; list = client.query(client.view("example/foo").includeDocs(true), Foo.class);
+ * </pre>
+ *
+ * @see CouchDbClient
+ * @since 0.3.3
+ */
+public class CouchDbAsyncClient<JoT, JeT> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(CouchDbAsyncClient.class);
+
+    private final URI baseURI;
+    private final URI dbURI;
+    private final Serializer<JoT, JeT> serializer;
+    private final Executor executor;
+    private final CloseableHttpAsyncClient httpClient;
+    private final HttpHost host;
+    private final BasicCredentialsProvider credentialsProvider;
+    private volatile IdGenerator idGenerator = IdGenerator.random();
+
+    /**
+     * Constructs a new instance of this class, expects a configuration file named <code>couchdb.properties</code> to be
+     * available in your application default classpath.
+     */
+    public CouchDbAsyncClient(Serializer<JoT, JeT> serializer) {
+        this(new CouchDbConfig(), serializer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new instance of this class.
+     *
+     * @param configFileName The configuration file name.
+     */
+    public CouchDbAsyncClient(String configFileName, Serializer<JoT, JeT> serializer) {
+        this(new CouchDbConfig(configFileName), serializer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new instance of this class.
+     *
+     * @param properties An object containing configuration properties.
+     * @see CouchDbProperties
+     */
+    public CouchDbAsyncClient(CouchDbProperties properties, Serializer<JoT, JeT> serializer) {
+        this(new CouchDbConfig(properties), serializer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new instance of this class.
+     *
+     * @param properties An object containing configuration properties.
+     * @param executor The executor responses are deserialized on.
+     * @see CouchDbProperties
+     */
+    public CouchDbAsyncClient(CouchDbProperties properties, Serializer<JoT, JeT> serializer, Executor executor) {
+        this(new CouchDbConfig(properties), serializer, executor);
+    }
+
+    CouchDbAsyncClient(CouchDbConfig config, Serializer<JoT, JeT> serializer, Executor executor) {
+        assertNotEmpty(executor, "executor");
+        final CouchDbProperties props = config.getProperties();
+        this.serializer = serializer;
+        this.executor = executor;
+        this.host = new HttpHost(props.getProtocol(), props.getHost(), props.getPort());
+        this.credentialsProvider = initializeCredentials(props);
+        this.httpClient = createHttpClient(props);
+        this.httpClient.start();
+
+        final String path = props.getPath() != null ? props.getPath() : "";
+        this.baseURI = buildUri().scheme(props.getProtocol()).host(props.getHost()).port(props.getPort()).path("/")
+                .path(path).build();
+        this.dbURI = buildUri(baseURI).path(props.getDbName()).path("/").build();
+
+        if (props.isCreateDbIfNotExist()) {
+            createDbIfNotExist(props.getDbName());
+        }
+    }
+
+    // Public API
+
+    /**
+     * Finds an Object of the specified type.
+     *
+     * @param <T> Object type.
+     * @param classType The class of type T.
+     * @param id The document id.
+     * @return A future of an object of type T, completed with {@link NoDocumentException} if the document is not
+     *         found in the database.
+     */
+    public <T> CompletableFuture<T> find(Class<T> classType, String id) {
+        assertNotEmpty(classType, "Class");
+        assertNotEmpty(id, "id");
+        return get(buildUri(dbURI).pathEncoded(id).build(), classType);
+    }
+
+    /**
+     * Finds an Object of the specified type.
+     *
+     * @param <T> Object type.
+     * @param classType The class of type T.
+     * @param id The document id.
+     * @param params Extra parameters to append.
+     * @return A future of an object of type T.
+     */
+    public <T> CompletableFuture<T> find(Class<T> classType, String id, Params params) {
+        assertNotEmpty(classType, "Class");
+        assertNotEmpty(id, "id");
+        return get(buildUri(dbURI).pathEncoded(id).query(params).build(), classType);
+    }
+
+    /**
+     * Finds an Object of the specified type.
+     *
+     * @param <T> Object type.
+     * @param classType The class of type T.
+     * @param id The document _id field.
+     * @param rev The document _rev field.
+     * @return A future of an object of type T.
+     */
+    public <T> CompletableFuture<T> find(Class<T> classType, String id, String rev) {
+        assertNotEmpty(classType, "Class");
+        assertNotEmpty(id, "id");
+        assertNotEmpty(rev, "rev");
+        return get(buildUri(dbURI).pathEncoded(id).query("rev", rev).build(), classType);
+    }
+
+    /**
+     * Find documents using a declarative JSON querying syntax.
+     *
+     * @param <T> The class type.
+     * @param jsonQuery The JSON query string.
+     * @param classOfT The class of type T.
+     * @return A future of the result of the query as a {@code List<T> }
+     */
+    public <T> CompletableFuture<List<T>> findDocs(String jsonQuery, Class<T> classOfT) {
+        assertNotEmpty(jsonQuery, "jsonQuery");
+        final SimpleHttpRequest post = jsonRequest(SimpleRequestBuilder.post(buildUri(dbURI).path("_find").build()),
+                jsonQuery);
+        return execute(post, reader -> {
+            List<T> list = new ArrayList<T>();
+            serializer.extractDocsToList(reader, classOfT, list);
+            return list;
+        });
+    }
+
+    /**
+     * Checks if a document exist in the database.
+     *
+     * @param id The document _id field.
+     * @return A future of true If the document is found, false otherwise.
+     */
+    public CompletableFuture<Boolean> contains(String id) {
+        assertNotEmpty(id, "id");
+        final SimpleHttpRequest head = SimpleRequestBuilder.head(buildUri(dbURI).pathEncoded(id).build()).build();
+        return execute(head, reader -> Boolean.TRUE).exceptionally(e -> {
+            if (unwrap(e) instanceof NoDocumentException) {
+                return Boolean.FALSE;
+            }
+            throw new CompletionException(unwrap(e));
+        });
+    }
+
+    /**
+     * Saves an object in the database, using HTTP <tt>PUT</tt> request.
+     * <p>
+     * If the object doesn't have an <code>_id</code> value, the code will assign a <code>UUID</code> as the document
+     * id.
+     *
+     * @param object The object to save
+     * @return A future of {@link Response}, completed with {@link DocumentConflictException} if a conflict is detected
+     *         during the save.
+     */
+    public CompletableFuture<Response> save(Object object) {
+        return put(object, true);
+    }
+
+    /**
+     * Updates an object in the database, the object must have the correct <code>_id</code> and <code>_rev</code>
+     * values.
+     *
+     * @param object The object to update
+     * @return A future of {@link Response}, completed with {@link DocumentConflictException} if a conflict is detected
+     *         during the update.
+     */
+    public CompletableFuture<Response> update(Object object) {
+        return put(object, false);
+    }
+
+    /**
+     * Removes a document from the database.
+     * <p>
+     * The object must have the correct <code>_id</code> and <code>_rev</code> values.
+     *
+     * @param object The document to remove as object.
+     * @return A future of {@link Response}
+     */
+    public CompletableFuture<Response> remove(Object object) {
+        assertNotEmpty(object, "object");
+        final DocumentAccessor.Keys keys = DocumentAccessor.read(serializer, object);
+        return remove(keys.id, keys.rev);
+    }
+
+    /**
+     * Removes a document from the database given both a document <code>_id</code> and <code>_rev</code> values.
+     *
+     * @param id The document _id field.
+     * @param rev The document _rev field.
+     * @return A future of {@link Response}
+     */
+    public CompletableFuture<Response> remove(String id, String rev) {
+        assertNotEmpty(id, "id");
+        assertNotEmpty(rev, "rev");
+        final URI uri = buildUri(dbURI).pathEncoded(id).query("rev", rev).build();
+        return execute(SimpleRequestBuilder.delete(uri).build(), reader -> serializer.fromJson(reader, Response.class));
+    }
+
+    /**
+     * Performs bulk documents create and update request.
+     *
+     * @param objects The {@link List} of documents objects.
+     * @param newEdits If false, prevents the database from assigning documents new revision IDs.
+     * @return A future of {@code List<Response>} Containing the resulted entries.
+     */
+    public CompletableFuture<List<Response>> bulk(List<?> objects, boolean newEdits) {
+        assertNotEmpty(objects, "objects");
+        final String newEditsVal = newEdits ? "\"new_edits\": true, " : "\"new_edits\": false, ";
+        final String json = String.format("{%s%s%s}", newEditsVal, "\"docs\": ", serializer.toJson(objects));
+        final URI uri = buildUri(dbURI).path("_bulk_docs").build();
+        return execute(jsonRequest(SimpleRequestBuilder.post(uri), json),
+                reader -> serializer.deserializeAsList(reader, Response.class));
+    }
+
+    /**
+     * Provides a <tt>View</tt> whose query parameters are set as usual, then executed by
+     * {@link #query(View, Class)} or {@link #queryView(View, Class, Class, Class)}.
+     *
+     * @param viewId The view id.
+     * @return {@link View}
+     */
+    public View<JoT, JeT> view(String viewId) {
+        return new View<>(null, serializer, dbURI, viewId);
+    }
+
+    /**
+     * Queries a view.
+     *
+     * @param <T> Object type T
+     * @param view The view, as returned by {@link #view(String)}
+     * @param classOfT The class of type T
+     * @return A future of the result of the view query as a {@code List<T> }
+     */
+    public <T> CompletableFuture<List<T>> query(View<JoT, JeT> view, Class<T> classOfT) {
+        final Boolean includeDocs = view.getIncludeDocs();
+        return execute(viewRequest(view), reader -> {
+            List<T> list = new ArrayList<T>();
+            serializer.extractRowToList(reader, classOfT, list, includeDocs);
+            return list;
+        });
+    }
+
+    /**
+     * Queries a view.
+     *
+     * @param <K> Object type K (key)
+     * @param <V> Object type V (value)
+     * @param <T> The class type
+     * @param view The view, as returned by {@link #view(String)}
+     * @param classOfK The class of type K.
+     * @param classOfV The class of type V.
+     * @param classOfT The class of type T.
+     * @return A future of the View result entries.
+     */
+    public <K, V, T> CompletableFuture<ViewResult<K, V, T>> queryView(View<JoT, JeT> view, Class<K> classOfK,
+            Class<V> classOfV, Class<T> classOfT) {
+        final Boolean includeDocs = view.getIncludeDocs();
+        return execute(viewRequest(view),
+                reader -> serializer.handleViewResult(reader, includeDocs, classOfK, classOfV, classOfT));
+    }
+
+    /**
+     * Creates a scheduler watching the changes of many databases with longpoll requests, at most
+     * <tt>maxInFlight</tt> of them open at a time.
+     *
+     * @param maxInFlight The maximum number of open polls, e.g. the maximum number of connections.
+     * @return {@link LongPollScheduler}
+     */
+    public LongPollScheduler longPollScheduler(int maxInFlight) {
+        return new LongPollScheduler(this, maxInFlight);
+    }
+
+    /**
+     * @return The base URI.
+     */
+    public URI getBaseUri() {
+        return baseURI;
+    }
+
+    /**
+     * @return The database URI.
+     */
+    public URI getDBUri() {
+        return dbURI;
+    }
+
+    /**
+     * @return The serializer used by this client.
+     */
+    public Serializer<JoT, JeT> getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * @return The generator of the ids of new documents.
+     */
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Sets the generator of the ids of new documents saved without one, random UUIDs by default.
+     *
+     * @param idGenerator The generator, e.g. {@link IdGenerator#timeOrdered()} or
+     *            {@link CouchDbContext#serverIdGenerator(int)}.
+     * @since 0.3.3
+     */
+    public void setIdGenerator(IdGenerator idGenerator) {
+        assertNotEmpty(idGenerator, "idGenerator");
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Shuts down the I/O reactor, pending requests are cancelled.
+     */
+    public void shutdown() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    public void close() throws IOException {
+        shutdown();
+    }
+
+    // End - Public API
+
+    /**
+     * Performs a HTTP GET request.
+     *
+     * @return A future of an object of type T
+     */
+    <T> CompletableFuture<T> get(URI uri, Class<T> classType) {
+        final SimpleHttpRequest get = SimpleRequestBuilder.get(uri).addHeader(CouchDbClientBase.ACCEPT_JSON).build();
+        return execute(get, reader -> serializer.fromJson(reader, classType));
+    }
+
+    /**
+     * Performs a HTTP PUT request, saves or updates a document.
+     *
+     * @return A future of {@link Response}
+     */
+    CompletableFuture<Response> put(Object object, boolean newEntity) {
+        assertNotEmpty(object, "object");
+        final DocumentAccessor.Keys keys = DocumentAccessor.read(serializer, object);
+        String id = keys.id;
+        final String rev = keys.rev;
+        if (newEntity) { // save
+            assertNull(rev, "rev");
+            id = (id == null) ? idGenerator.nextId() : id;
+        } else { // update
+            assertNotEmpty(id, "id");
+            assertNotEmpty(rev, "rev");
+        }
+        final URI uri = buildUri(dbURI).pathEncoded(id).build();
+        return execute(jsonRequest(SimpleRequestBuilder.put(uri), serializer.toJson(keys.json)),
+                reader -> serializer.fromJson(reader, Response.class));
+    }
+
+    /**
+     * Executes a request, the response is validated and then handed to <code>handler</code> on the executor.
+     * <p>
+     * Cancelling the returned future cancels the HTTP exchange.
+     */
+    <T> CompletableFuture<T> execute(SimpleHttpRequest request, Function<Reader, T> handler) {
+        final CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+        final Future<SimpleHttpResponse> exchange = httpClient.execute(SimpleRequestProducer.create(request),
+                SimpleResponseConsumer.create(), null, createContext(), new FutureCallback<SimpleHttpResponse>() {
+                    public void completed(SimpleHttpResponse result) {
+                        response.complete(result);
+                    }
+
+                    public void failed(Exception ex) {
+                        response.completeExceptionally(new CouchDbException("Error executing request. ", ex));
+                    }
+
+                    public void cancelled() {
+                        response.cancel(false);
+                    }
+                });
+        final CompletableFuture<T> result = response.thenApplyAsync(resp -> {
+            try {
+                CouchDbClientBase.validate(resp);
+            } catch (IOException e) {
+                throw new CouchDbException(e);
+            }
+            final byte[] body = resp.getBodyBytes();
+            final Reader reader = new InputStreamReader(new ByteArrayInputStream(body == null ? new byte[0] : body),
+                    StandardCharsets.UTF_8);
+            return handler.apply(reader);
+        }, executor);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Helpers
+
+    private SimpleHttpRequest viewRequest(View<JoT, JeT> view) {
+        final URI uri = view.getUri();
+        if (view.getKeysJson() != null) { // bulk docs
+            return jsonRequest(SimpleRequestBuilder.post(uri), view.getKeysJson());
+        }
+        return SimpleRequestBuilder.get(uri).addHeader(CouchDbClientBase.ACCEPT_JSON).build();
+    }
+
+    private SimpleHttpRequest jsonRequest(SimpleRequestBuilder builder, String json) {
+        return builder.setBody(json, ContentType.APPLICATION_JSON).build();
+    }
+
+    private void createDbIfNotExist(String dbName) {
+        final URI uri = buildUri(baseURI).path(dbName).build();
+        try {
+            execute(SimpleRequestBuilder.head(uri).build(), reader -> null).join();
+        } catch (CompletionException e) {
+            if (!(unwrap(e) instanceof NoDocumentException)) {
+                throw e;
+            }
+            execute(SimpleRequestBuilder.put(uri).build(), reader -> null).join();
+            log.info(String.format("Created Database: '%s'", dbName));
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+
+    private BasicCredentialsProvider initializeCredentials(CouchDbProperties props) {
+        BasicCredentialsProvider credsProvider = null;
+        if (props.getUsername() != null) {
+            credsProvider = new BasicCredentialsProvider();
+            credsProvider.setCredentials(new AuthScope(props.getHost(), props.getPort()),
+                    new UsernamePasswordCredentials(props.getUsername(), props.getPassword().toCharArray()));
+            props.clearPassword();
+        }
+        return credsProvider;
+    }
+
+    private HttpContext createContext() {
+        final HttpClientContext context = HttpClientContext.create();
+        if (credentialsProvider != null) {
+            final AuthCache authCache = new BasicAuthCache();
+            final BasicScheme auth = new BasicScheme();
+            auth.initPreemptive(credentialsProvider.getCredentials(new AuthScope(host), context));
+            authCache.put(host, auth);
+            context.setAuthCache(authCache);
+        }
+        return context;
+    }
+
+    private CloseableHttpAsyncClient createHttpClient(CouchDbProperties props) {
+        try {
+            return props.isHttp2() ? createHttp2Client(props) : createHttp1Client(props);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error Creating HTTPClient: ", e);
+        }
+    }
+
+    /**
+     * HTTP/1.1 client backed by a connection pool, each in-flight request leases a connection.
+     */
+    private CloseableHttpAsyncClient createHttp1Client(CouchDbProperties props) throws Exception {
+        final PoolingAsyncClientConnectionManagerBuilder cmBuilder = PoolingAsyncClientConnectionManagerBuilder
+                .create().setDefaultConnectionConfig(createConnectionConfig(props));
+        if ("https".equals(props.getProtocol())) {
+            cmBuilder.setTlsStrategy(createTlsStrategy());
+        }
+        if (props.getMaxConnections() != 0) {
+            cmBuilder.setMaxConnTotal(props.getMaxConnections());
+            cmBuilder.setMaxConnPerRoute(props.getMaxConnections());
+        }
+        final PoolingAsyncClientConnectionManager ccm = cmBuilder.build();
+
+        final HttpAsyncClientBuilder clientBuilder = HttpAsyncClients.custom().setConnectionManager(ccm)
+                .setDefaultRequestConfig(createRequestConfig(props))
+                .addRequestInterceptorFirst(requestLogger()).addResponseInterceptorFirst(responseLogger());
+        if (props.getProxyHost() != null) {
+            clientBuilder.setProxy(new HttpHost(props.getProxyHost(), props.getProxyPort()));
+        }
+        if (credentialsProvider != null) {
+            clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+        return clientBuilder.build();
+    }
+
+    /**
+     * HTTP/2 client, all requests to the server are multiplexed as streams over one connection; h2 is negotiated by
+     * ALPN over TLS, plain <tt>http</tt> uses h2c with prior knowledge (e.g. against a local TLS terminating proxy).
+     */
+    private CloseableHttpAsyncClient createHttp2Client(CouchDbProperties props) throws Exception {
+        if (props.getProxyHost() != null) {
+            throw new IllegalArgumentException("HTTP/2 transport does not support forward proxies");
+        }
+        final H2AsyncClientBuilder clientBuilder = HttpAsyncClients.customHttp2()
+                .setDefaultConnectionConfig(createConnectionConfig(props))
+                .setDefaultRequestConfig(createRequestConfig(props))
+                .addRequestInterceptorFirst(requestLogger()).addResponseInterceptorFirst(responseLogger());
+        if ("https".equals(props.getProtocol())) {
+            clientBuilder.setTlsStrategy(createTlsStrategy());
+        }
+        if (credentialsProvider != null) {
+            clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+        return clientBuilder.build();
+    }
+
+    private RequestConfig createRequestConfig(CouchDbProperties props) {
+        return RequestConfig.custom().setResponseTimeout(Timeout.ofMilliseconds(props.getSocketTimeout()))
+                .setCookieSpec(StandardCookieSpec.STRICT).build();
+    }
+
+    private ConnectionConfig createConnectionConfig(CouchDbProperties props) {
+        final ConnectionConfig.Builder builder = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(props.getConnectionTimeout()));
+        if (props.getSocketTimeout() > 0) {
+            builder.setSocketTimeout(Timeout.ofMilliseconds(props.getSocketTimeout()));
+        }
+        if (props.getConnectionTTL() > 0) {
+            builder.setTimeToLive(TimeValue.ofMilliseconds(props.getConnectionTTL()));
+        }
+        return builder.build();
+    }
+
+    private TlsStrategy createTlsStrategy() throws Exception {
+        final SSLContext sslcontext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+        return ClientTlsStrategyBuilder.create().setSslContext(sslcontext)
+                .setHostnameVerifier(NoopHostnameVerifier.INSTANCE).build();
+    }
+
+    /**
+     * @return A request interceptor for logging.
+     */
+    private HttpRequestInterceptor requestLogger() {
+        return new HttpRequestInterceptor() {
+            public void process(final HttpRequest request, final EntityDetails entity, final HttpContext context)
+                    throws IOException {
+                if (log.isInfoEnabled()) {
+                    log.info("> " + request.getMethod() + " " + URLDecoder.decode(request.getRequestUri(), "UTF-8"));
+                }
+            }
+        };
+    }
+
+    /**
+     * @return A response interceptor for logging.
+     */
+    private HttpResponseInterceptor responseLogger() {
+        return new HttpResponseInterceptor() {
+            public void process(final HttpResponse response, final EntityDetails entity, final HttpContext context)
+                    throws IOException {
+                if (log.isInfoEnabled()) {
+                    log.info("< Status: " + response.getCode());
+                }
+            }
+        };
+    }
+}
@@ -13,17 +13,14 @@
 
 package org.lightcouch;
 
-import org.apache.hc.client5.http.auth.AuthCache;
 import org.apache.hc.client5.http.auth.AuthScope;
-import org.apache.hc.client5.http.auth.Credentials;
 import org.apache.hc.client5.http.auth.CredentialsProvider;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.cookie.StandardCookieSpec;
-import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
-import org.apache.hc.client5.http.impl.auth.BasicScheme;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
@@ -34,14 +31,17 @@ import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpRequestInterceptor;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
-import org.apache.hc.core5.http.protocol.BasicHttpContext;
+import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
 import org.apache.hc.core5.ssl.SSLContexts;
@@ -55,11 +55,13 @@ import javax.net.ssl.SSLContext;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Base64;
 
 /**
  * Presents a <i>client</i> to CouchDB database server.
@@ -97,6 +99,9 @@ import java.security.cert.X509Certificate;
  */
 public class CouchDbClient<JoT, JeT> extends CouchDbClientBase<JoT, JeT> implements Closeable {
 
+    /** Preemptive Basic credentials, encoded once; assigned during construction by {@link #initializeCredentials} */
+    private Header authorization;
+
     /**
      * Constructs a new instance of this class, expects a configuration file named <code>couchdb.properties</code> to be
      * available in your application default classpath.
@@ -148,6 +153,9 @@ public class CouchDbClient<JoT, JeT> extends CouchDbClientBase<JoT, JeT> impleme
      */
     @Override
     CloseableHttpClient createHttpClient(CouchDbProperties props, CredentialsProvider credentialsProvider) {
+        if (props.isHttp2()) {
+            log.warn("HTTP/2 transport is only supported by CouchDbAsyncClient, falling back to HTTP/1.1");
+        }
         try {
             Registry<ConnectionSocketFactory> registry = createRegistry(props);
             PoolingHttpClientConnectionManager ccm = createConnectionManager(props, registry);
@@ -162,6 +170,10 @@ public class CouchDbClient<JoT, JeT> extends CouchDbClientBase<JoT, JeT> impleme
             if (credentialsProvider != null) {
                 clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
             }
+            if (session != null) {
+                clientBuilder.disableCookieManagement();
+                clientBuilder.addExecInterceptorAfter(ChainElement.PROTOCOL.name(), "couchdb-session", session);
+            }
 
             registerInterceptors(clientBuilder);
             return clientBuilder.build();
@@ -173,27 +185,26 @@ public class CouchDbClient<JoT, JeT> extends CouchDbClientBase<JoT, JeT> impleme
     @Override
     BasicCredentialsProvider initializeCredentials(CouchDbProperties props) {
         BasicCredentialsProvider credsProvider = null;
-        if (props.getUsername() != null) {
+        if (props.getUsername() != null && !props.isCookieAuth()) {
             credsProvider = new BasicCredentialsProvider();
             credsProvider.setCredentials(new AuthScope(props.getHost(), props.getPort()),
                     new UsernamePasswordCredentials(props.getUsername(), props.getPassword().toCharArray()));
+            final String token = props.getUsername() + ":" + props.getPassword();
+            authorization = new BasicHeader(HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)));
             props.clearPassword();
         }
         return credsProvider;
     }
 
+    /**
+     * The client records per exchange state (route, request, response) in the context, so it can not be shared
+     * between requests. Preemptive credentials are sent as a precomputed header rather than through a per request
+     * auth cache.
+     */
     @Override
     HttpContext createContext() {
-        HttpContext context = new BasicHttpContext();
-        AuthCache authCache = new BasicAuthCache();
-        BasicScheme auth = new BasicScheme();
-        if (super.credentialsProvider != null) {
-            Credentials credentials = super.credentialsProvider.getCredentials(new AuthScope(host), context);
-            auth.initPreemptive(credentials);
-            authCache.put(host, auth);
-            context.setAttribute(HttpClientContext.AUTH_CACHE, authCache);
-        }
-        return context;
+        return HttpClientContext.create();
     }
 
     private PoolingHttpClientConnectionManager createConnectionManager(CouchDbProperties props,
@@ -250,6 +261,9 @@ public class CouchDbClient<JoT, JeT> extends CouchDbClientBase<JoT, JeT> impleme
         clientBuilder.addRequestInterceptorFirst(new HttpRequestInterceptor() {
             public void process(final HttpRequest request, final EntityDetails entity, final HttpContext context)
                     throws IOException {
+                if (authorization != null && !request.containsHeader(HttpHeaders.AUTHORIZATION)) {
+                    request.addHeader(authorization);
+                }
                 if (log.isInfoEnabled()) {
                     log.info("> " + request.getMethod() + " " + URLDecoder.decode(request.getRequestUri(), "UTF-8"));
                 }
@@ -262,12 +276,16 @@ public class CouchDbClient<JoT, JeT> extends CouchDbClientBase<JoT, JeT> impleme
                 if (log.isInfoEnabled()) {
                     log.info("< Status: " + response.getCode());
                 }
+                if (session != null && response.getCode() == HttpStatus.SC_UNAUTHORIZED) {
+                    return; // validated by the session once re-authentication was attempted
+                }
                 validate(response);
             }
         });
     }
 
     public void shutdown() {
+        closeChangesHub();
         try {
             httpClient.close();
         } catch (IOException e) {
@@ -27,6 +27,7 @@ import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
@@ -39,6 +40,7 @@ import org.lightcouch.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -52,7 +54,6 @@ import java.util.Map;
 import static org.lightcouch.CouchDbUtil.assertNotEmpty;
 import static org.lightcouch.CouchDbUtil.assertNull;
 import static org.lightcouch.CouchDbUtil.close;
-import static org.lightcouch.CouchDbUtil.generateUUID;
 import static org.lightcouch.CouchDbUtil.getStream;
 import static org.lightcouch.CouchDbUtil.streamToString;
 import static org.lightcouch.URIBuilder.buildUri;
@@ -72,10 +73,19 @@ public abstract class CouchDbClientBase<JoT, JeT> {
     private Serializer<JoT, JeT> serializer;
     private CouchDbContext<JoT, JeT> context;
     private CouchDbDesign<JoT, JeT> design;
+    /** Headers are immutable, shared by all requests */
+    static final Header ACCEPT_JSON = new BasicHeader("Accept", "application/json");
+    /** Default number of concurrent fetches of a {@link ReadBatcher} */
+    static final int READ_BATCHER_FETCHERS = 4;
+
     final CloseableHttpClient httpClient;
     final HttpHost host;
 
 	final BasicCredentialsProvider credentialsProvider;
+    final CookieSession session;
+    private final SingleFlight singleFlight;
+    private ChangesHub changesHub;
+    private volatile IdGenerator idGenerator = IdGenerator.random();
 
     CouchDbClientBase(Serializer<JoT, JeT> serializer) {
         this(new CouchDbConfig(), serializer);
@@ -84,9 +94,19 @@ public abstract class CouchDbClientBase<JoT, JeT> {
     CouchDbClientBase(CouchDbConfig config,
                       Serializer<JoT, JeT> serializer) {
         final CouchDbProperties props = config.getProperties();
+        this.session = props.isCookieAuth() ? new CookieSession(props) : null;
         this.credentialsProvider = initializeCredentials(props);
         this.httpClient = createHttpClient(props, credentialsProvider);
+        if (session != null) {
+            try {
+                session.start(httpClient);
+            } catch (CouchDbException e) {
+                close(httpClient);
+                throw e;
+            }
+        }
         this.serializer = serializer;
+        this.singleFlight = props.isSingleFlight() ? new SingleFlight() : null;
         this.host = new HttpHost(props.getProtocol(), props.getHost(), props.getPort());
 
         final String path = props.getPath() != null ? props.getPath() : "";
@@ -155,6 +175,113 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         return new Changes<>(this);
     }
 
+    /**
+     * Provides the continuous changes feed shared by the listeners of this client, see {@link ChangesHub}.
+     *
+     * @return {@link ChangesHub}
+     */
+    public synchronized ChangesHub changesHub() {
+        if (changesHub == null) {
+            changesHub = new ChangesHub(this);
+        }
+        return changesHub;
+    }
+
+    /**
+     * Closes the shared changes feed, if used.
+     */
+    void closeChangesHub() {
+        final ChangesHub hub;
+        synchronized (this) {
+            hub = changesHub;
+        }
+        if (hub != null) {
+            hub.close();
+        }
+    }
+
+    /**
+     * Creates a follower of the continuous changes feed, reconnecting on failures and resuming from the checkpoint
+     * of the last processed change.
+     *
+     * @param checkpoints Persists the processed sequence, see {@link CheckpointStore#localDocument} and
+     *            {@link CheckpointStore#file}.
+     * @return {@link ChangesFollower}
+     */
+    public ChangesFollower<JoT, JeT> changesFollower(CheckpointStore checkpoints) {
+        return new ChangesFollower<>(this, checkpoints);
+    }
+
+    /**
+     * Creates a consumer of the changes feed handing the changed documents in batches, fetched with one request per
+     * batch.
+     *
+     * @param <T> The type of the documents.
+     * @param classType The class of type T.
+     * @param checkpoints Persists the sequence of the last handled batch.
+     * @return {@link ChangesBatcher}
+     */
+    public <T> ChangesBatcher<T> changesBatcher(Class<T> classType, CheckpointStore checkpoints) {
+        return new ChangesBatcher<>(this, classType, checkpoints);
+    }
+
+    /**
+     * Creates a processor of the changes feed running the changes of different documents in parallel, and the
+     * changes of a document in order.
+     *
+     * @param lanes The number of processing threads.
+     * @param checkpoints Persists the sequence up to which all the changes are processed.
+     * @return {@link StripedChangesProcessor}
+     */
+    public StripedChangesProcessor changesProcessor(int lanes, CheckpointStore checkpoints) {
+        return new StripedChangesProcessor(this, lanes, checkpoints);
+    }
+
+    /**
+     * Creates a batcher coalescing concurrent single document writes into <tt>_bulk_docs</tt> requests.
+     * <p>
+     * The batcher should be closed after use to write the pending documents and release its thread.
+     *
+     * @param maxBatchSize The number of pending documents that triggers a write.
+     * @param maxDelay The maximum time in milliseconds a document waits for its batch to fill.
+     * @return {@link WriteBatcher}
+     */
+    public WriteBatcher<JoT, JeT> writeBatcher(int maxBatchSize, long maxDelay) {
+        return new WriteBatcher<>(this, maxBatchSize, maxDelay);
+    }
+
+    /**
+     * Creates a batcher coalescing concurrent finds of documents of a type into <tt>_all_docs</tt> requests, fetching
+     * up to {@value #READ_BATCHER_FETCHERS} batches at a time.
+     * <p>
+     * The batcher should be closed after use to release its threads.
+     *
+     * @param <T> The type of the documents.
+     * @param classType The class of type T.
+     * @param maxBatchSize The number of pending ids that triggers a fetch.
+     * @param window The time in milliseconds ids are collected before a fetch.
+     * @return {@link ReadBatcher}
+     */
+    public <T> ReadBatcher<T> readBatcher(Class<T> classType, int maxBatchSize, long window) {
+        return readBatcher(classType, maxBatchSize, window, READ_BATCHER_FETCHERS);
+    }
+
+    /**
+     * Creates a batcher coalescing concurrent finds of documents of a type into <tt>_all_docs</tt> requests.
+     * <p>
+     * The batcher should be closed after use to release its threads.
+     *
+     * @param <T> The type of the documents.
+     * @param classType The class of type T.
+     * @param maxBatchSize The number of pending ids that triggers a fetch.
+     * @param window The time in milliseconds ids are collected before a fetch.
+     * @param fetchers The maximum number of batches fetched at a time, the threads of the batcher.
+     * @return {@link ReadBatcher}
+     */
+    public <T> ReadBatcher<T> readBatcher(Class<T> classType, int maxBatchSize, long window, int fetchers) {
+        return new ReadBatcher<>(this, classType, maxBatchSize, window, fetchers);
+    }
+
     /**
      * Purge operation over database
      *
@@ -344,7 +471,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         ClassicHttpResponse response = null;
         try {
             URI uri = buildUri(getDBUri()).build();
-            response = post(uri, getSerializer().toJson(object));
+            response = post(uri, JsonEntity.of(getSerializer(), object));
             return getResponse(response);
         } finally {
             close(response);
@@ -361,7 +488,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         ClassicHttpResponse response = null;
         try {
             URI uri = buildUri(getDBUri()).query("batch", "ok").build();
-            response = post(uri, getSerializer().toJson(object));
+            response = post(uri, JsonEntity.of(getSerializer(), object));
         } finally {
             close(response);
         }
@@ -390,10 +517,8 @@ public abstract class CouchDbClientBase<JoT, JeT> {
      */
     public Response remove(Object object) {
         assertNotEmpty(object, "object");
-        var jsonObject = serializer.getAsJsonObject(object);
-        final String id = serializer.getId(jsonObject);
-        final String rev = serializer.getRev(jsonObject);
-        return remove(id, rev);
+        final DocumentAccessor.Keys keys = DocumentAccessor.read(serializer, object);
+        return remove(keys.id, keys.rev);
     }
 
     /**
@@ -420,12 +545,40 @@ public abstract class CouchDbClientBase<JoT, JeT> {
      */
     public List<Response> bulk(List<?> objects, boolean newEdits) {
         assertNotEmpty(objects, "objects");
+        return bulkDocs(JsonEntity.bulkDocs(getSerializer(), objects, newEdits));
+    }
+
+    /**
+     * Fetches many documents, or specific revisions of them, with a single <tt>_bulk_get</tt> request.
+     *
+     * @param <T> The type of the documents.
+     * @param refs The documents ids, with an optional revision.
+     * @param classType The class of type T.
+     * @return {@link BulkGet}, to set the options and execute the request.
+     * @since 0.3.3
+     */
+    public <T> BulkGet<T> bulkGet(List<DocRef> refs, Class<T> classType) {
+        return new BulkGet<>(this, refs, classType);
+    }
+
+    /**
+     * Creates a writer of large document lists, sent in parallel <tt>_bulk_docs</tt> requests whose size adapts
+     * to the server latency.
+     *
+     * @return {@link BulkWriter}
+     */
+    public BulkWriter bulkWriter() {
+        return new BulkWriter(this);
+    }
+
+    /**
+     * Posts a <tt>_bulk_docs</tt> request body.
+     */
+    List<Response> bulkDocs(HttpEntity entity) {
         ClassicHttpResponse response = null;
         try {
-            final String newEditsVal = newEdits ? "\"new_edits\": true, " : "\"new_edits\": false, ";
-            final String json = String.format("{%s%s%s}", newEditsVal, "\"docs\": ", getSerializer().toJson(objects));
             final URI uri = buildUri(getDBUri()).path("_bulk_docs").build();
-            response = post(uri, json);
+            response = post(uri, entity);
             return getResponseList(response);
         } finally {
             close(response);
@@ -446,7 +599,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         assertNotEmpty(in, "in");
         assertNotEmpty(name, "name");
         assertNotEmpty(contentType, "ContentType");
-        final URI uri = buildUri(getDBUri()).path(generateUUID()).path("/").path(name).build();
+        final URI uri = buildUri(getDBUri()).path(idGenerator.nextId()).path("/").path(name).build();
         return put(uri, in, contentType);
     }
 
@@ -551,6 +704,14 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         return dbURI;
     }
 
+    /**
+     * @return The deduplication of concurrent identical GET requests, with its hit/miss counters; {@code null} unless
+     *         enabled with {@link CouchDbProperties#setSingleFlight(boolean)}.
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
     /**
      * @return The serializer used by this client.
      */
@@ -558,6 +719,25 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         return serializer;
     }
 
+    /**
+     * @return The generator of the ids of new documents.
+     */
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Sets the generator of the ids of new documents saved without one, random UUIDs by default.
+     *
+     * @param idGenerator The generator, e.g. {@link IdGenerator#timeOrdered()} or
+     *            {@link CouchDbContext#serverIdGenerator(int)}.
+     * @since 0.3.3
+     */
+    public void setIdGenerator(IdGenerator idGenerator) {
+        assertNotEmpty(idGenerator, "idGenerator");
+        this.idGenerator = idGenerator;
+    }
+
     // End - Public API
 
     /**
@@ -577,7 +757,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
      */
     InputStream get(URI uri) {
         HttpGet get = new HttpGet(uri);
-        get.addHeader("Accept", "application/json");
+        get.addHeader(ACCEPT_JSON);
         return get(get);
     }
 
@@ -589,7 +769,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
     InputStream get(URI uri, Header[] headers) {
         HttpGet get = new HttpGet(uri);
         get.setHeaders(headers);
-        get.addHeader("Accept", "application/json");
+        get.addHeader(ACCEPT_JSON);
         return get(get);
     }
 
@@ -601,7 +781,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
     <T> T get(URI uri, Class<T> classType) {
         InputStream in = null;
         try {
-            in = get(uri);
+            in = getJson(uri, null);
             return getSerializer().fromJson(new InputStreamReader(in, "UTF-8"), classType);
         } catch (IOException e) {
             throw new CouchDbException(e);
@@ -618,7 +798,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
     <T> T get(URI uri, Class<T> classType, Header[] headers) {
         InputStream in = null;
         try {
-            in = get(uri, headers);
+            in = getJson(uri, headers);
             return getSerializer().fromJson(new InputStreamReader(in, "UTF-8"), classType);
         } catch (IOException e) {
             throw new CouchDbException(e);
@@ -627,6 +807,41 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         }
     }
 
+    /**
+     * Performs a HTTP GET request for a JSON result, shared with the identical requests in flight if
+     * {@link SingleFlight} is enabled, for the callers reading the whole result. The streams returned to the callers,
+     * e.g. attachments, are never buffered.
+     *
+     * @param headers The extra headers, or {@code null}.
+     */
+    InputStream getJson(URI uri, Header[] headers) {
+        if (singleFlight == null) {
+            return headers == null ? get(uri) : get(uri, headers);
+        }
+        final StringBuilder key = new StringBuilder("GET ").append(uri);
+        if (headers != null) {
+            for (Header header : headers) {
+                key.append('\n').append(header.getName()).append(": ").append(header.getValue());
+            }
+        }
+        return new ByteArrayInputStream(singleFlight.execute(key.toString(), () -> getBytes(uri, headers)));
+    }
+
+    /**
+     * Performs a HTTP GET request, reading the whole response.
+     */
+    private byte[] getBytes(URI uri, Header[] headers) {
+        InputStream in = null;
+        try {
+            in = headers == null ? get(uri) : get(uri, headers);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new CouchDbException("Error reading response. ", e);
+        } finally {
+            close(in);
+        }
+    }
+
     /**
      * Performs a HTTP HEAD request.
      *
@@ -645,18 +860,18 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         assertNotEmpty(object, "object");
         ClassicHttpResponse response = null;
         try {
-            JoT json = getSerializer().getAsJsonObject(object);
-            String id = getSerializer().getId(json);
-            String rev = getSerializer().getRev(json);
+            final DocumentAccessor.Keys keys = DocumentAccessor.read(getSerializer(), object);
+            String id = keys.id;
+            String rev = keys.rev;
             if (newEntity) { // save
                 assertNull(rev, "rev");
-                id = (id == null) ? generateUUID() : id;
+                id = (id == null) ? idGenerator.nextId() : id;
             } else { // update
                 assertNotEmpty(id, "id");
                 assertNotEmpty(rev, "rev");
             }
             final HttpPut put = new HttpPut(buildUri(uri).pathEncoded(id).build());
-            setEntity(put, json.toString());
+            put.setEntity(JsonEntity.of(getSerializer(), keys.json));
             response = executeRequest(put);
             return getResponse(response);
         } finally {
@@ -693,6 +908,17 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         return executeRequest(post);
     }
 
+    /**
+     * Performs a HTTP POST request with a streamed body.
+     *
+     * @return {@link HttpResponse}
+     */
+    ClassicHttpResponse post(URI uri, HttpEntity entity) {
+        HttpPost post = new HttpPost(uri);
+        post.setEntity(entity);
+        return executeRequest(post);
+    }
+
     /**
      * Performs a HTTP POST request.
      *
@@ -745,7 +971,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
      * @param response The HTTP response.
      * @throws ParseException 
      */
-    void validate(HttpResponse response) throws IOException {
+    static void validate(HttpResponse response) throws IOException {
         final int code = response.getCode();
         if (code == 200 || code == 201 || code == 202) { // success (ok | created | accepted)
             return;
@@ -761,6 +987,9 @@ public abstract class CouchDbClientBase<JoT, JeT> {
             case HttpStatus.SC_NOT_MODIFIED: {
                 throw new DocumentNotModifiedException(reason);
             }
+            case HttpStatus.SC_REQUEST_TOO_LONG: {
+                throw new RequestTooLargeException(reason);
+            }
             default: { // other errors: 400 | 401 | 500 etc.
                 throw new CouchDbException(reason += response.getReasonPhrase());
             }
@@ -813,7 +1042,7 @@ public abstract class CouchDbClientBase<JoT, JeT> {
         assertNotEmpty(rev, "rev");
 
         final URI uri = buildUri(getDBUri()).pathEncoded(id).build();
-        Header[] headers = new Header[]{new BasicHeader("If-None-Match", String.format("\"%s\"", rev))};
+        Header[] headers = new Header[]{new BasicHeader("If-None-Match", '"' + rev + '"')};
         return get(uri, classType, headers);
     }
 
@@ -17,6 +17,7 @@
 
 package org.lightcouch;
 
+import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.slf4j.Logger;
@@ -28,6 +29,7 @@ import java.io.Reader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.lightcouch.CouchDbUtil.assertNotEmpty;
 import static org.lightcouch.CouchDbUtil.close;
@@ -137,6 +139,38 @@ public class CouchDbContext<JoT, JeT> {
 		}
 	}
 
+	/**
+	 * Requests CouchDB to generate a list of UUIDs.
+	 * 
+	 * @param count The count of UUIDs, at most the server <tt>uuids/max_count</tt>.
+	 * @return The UUIDs.
+	 * @since 0.3.3
+	 */
+	@SuppressWarnings("unchecked")
+	public List<String> uuids(long count) {
+		InputStream instream = null;
+		try {
+			// never shared by SingleFlight, each caller needs its own UUIDs
+			instream = dbc.get(new HttpGet(buildUri(dbc.getBaseUri()).path("_uuids").query("count", count).build()));
+			Reader reader = new InputStreamReader(instream, StandardCharsets.UTF_8);
+			return (List<String>) dbc.getSerializer().fromJson(reader, Map.class).get("uuids");
+		} finally {
+			close(instream);
+		}
+	}
+
+	/**
+	 * Creates a generator of document ids handing out the UUIDs of the server, fetched by blocks.
+	 * 
+	 * @param blockSize The count of UUIDs per request.
+	 * @return {@link ServerIdGenerator}
+	 * @see CouchDbClientBase#setIdGenerator(IdGenerator)
+	 * @since 0.3.3
+	 */
+	public ServerIdGenerator serverIdGenerator(int blockSize) {
+		return new ServerIdGenerator(this, blockSize);
+	}
+
 	/**
 	 * Triggers a database <i>compact</i> request.
 	 */
@@ -180,4 +214,17 @@ public class CouchDbContext<JoT, JeT> {
 			close(instream);
 		}
 	}
+
+	/**
+	 * Creates a follower of the <tt>_db_updates</tt> feed, resuming from the checkpoint of the last processed
+	 * update, e.g. to process only the databases that changed.
+	 * 
+	 * @param checkpoints Persists the processed sequence, see {@link CheckpointStore#localDocument} and
+	 *            {@link CheckpointStore#file}.
+	 * @return {@link DbUpdatesFollower}
+	 * @since 0.3.3
+	 */
+	public DbUpdatesFollower dbUpdatesFollower(CheckpointStore checkpoints) {
+		return new DbUpdatesFollower(dbc, checkpoints);
+	}
 }
@@ -38,6 +38,9 @@ public class CouchDbProperties {
     private int maxConnections;
     private String proxyHost;
     private int proxyPort;
+    private boolean http2;
+    private boolean cookieAuth;
+    private boolean singleFlight;
 
     public CouchDbProperties() {
         // default constructor
@@ -184,4 +187,52 @@ public class CouchDbProperties {
         this.connectionTTL = connectionTTL;
         return this;
     }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    /**
+     * Selects the HTTP/2 transport: requests are multiplexed as concurrent streams over a single connection, h2 over
+     * TLS for <tt>https</tt> or h2c (prior knowledge) for <tt>http</tt>. Only supported by {@link CouchDbAsyncClient}.
+     * 
+     * @param http2 true to use HTTP/2, false for the default HTTP/1.1 connection pool.
+     * @return {@link CouchDbProperties}
+     */
+    public CouchDbProperties setHttp2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+
+    public boolean isCookieAuth() {
+        return cookieAuth;
+    }
+
+    /**
+     * Authenticates with a <tt>_session</tt> cookie obtained once from the configured credentials, instead of sending
+     * Basic credentials with every request.
+     *
+     * @param cookieAuth true to use cookie authentication, false for the default Basic authentication.
+     * @return {@link CouchDbProperties}
+     */
+    public CouchDbProperties setCookieAuth(boolean cookieAuth) {
+        this.cookieAuth = cookieAuth;
+        return this;
+    }
+
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Shares the response of identical GET requests in flight between concurrent callers.
+     *
+     * @param singleFlight true to deduplicate concurrent identical GET requests.
+     * @return {@link CouchDbProperties}
+     * @see SingleFlight
+     */
+    public CouchDbProperties setSingleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+        return this;
+    }
 }
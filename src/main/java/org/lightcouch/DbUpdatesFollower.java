@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Follows the <tt>_db_updates</tt> feed of the server with longpoll requests, resuming from the checkpoint of the
+ * last processed <tt>last_seq</tt>.
+ * <p>
+ * With {@link #start(Consumer)} each event is handed to a listener, and the checkpoint is saved after each response.
+ * With {@link #dispatch(int, Consumer)} a task is run per changed database on a pool of workers, e.g. reading the
+ * <tt>_changes</tt> of that tenant database: updates of a database are coalesced while its task is pending or
+ * running, so the task runs at most once at a time per database and again after the latest update. The checkpoint
+ * then only covers the updates whose tasks have completed.
+ * <p>
+ * Failures are retried with exponential backoff. Delivery is at least once.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * DbUpdatesFollower follower = dbClient.context().dbUpdatesFollower(CheckpointStore.localDocument(dbClient, "tenants"))
+ *     .filter(dbName -&gt; dbName.startsWith("tenant-"))
+ *     .dispatch(8, dbName -&gt; indexTenant(dbName));
+ * // at shutdown
+ * follower.close();
+ * </pre>
+ *
+ * @see CouchDbContext#dbUpdatesFollower(CheckpointStore)
+ * @since 0.3.3
+ */
+public class DbUpdatesFollower implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(DbUpdatesFollower.class);
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final CheckpointStore checkpoints;
+    private String initialSince;
+    private long timeout = 30000;
+    private long initialBackoff = 100;
+    private long maxBackoff = 60000;
+    private Predicate<String> filter = dbName -> true;
+
+    private final Object lock = new Object();
+    private Thread thread;
+    private HttpGet request;
+    private ExecutorService workers;
+    private volatile boolean stopped;
+    private volatile String since;
+    private String checkpointed;
+
+    // dispatch state, guarded by the lock
+    private final Map<String, Database> databases = new HashMap<>();
+    private final Deque<Batch> batches = new ArrayDeque<>();
+    private String completedSeq;
+
+    DbUpdatesFollower(CouchDbClientBase<?, ?> dbc, CheckpointStore checkpoints) {
+        assertNotEmpty(checkpoints, "checkpoints");
+        this.dbc = dbc;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * @param since The sequence to start from when no checkpoint is saved, e.g. <tt>now</tt>. Defaults to the
+     *            beginning of the feed.
+     * @return {@link DbUpdatesFollower}
+     */
+    public DbUpdatesFollower since(String since) {
+        this.initialSince = since;
+        return this;
+    }
+
+    /**
+     * @param timeout The time in milliseconds the server waits for updates before answering a longpoll request,
+     *            which must be shorter than the socket timeout of the client. Defaults to 30 seconds.
+     * @return {@link DbUpdatesFollower}
+     */
+    public DbUpdatesFollower timeout(long timeout) {
+        CouchDbUtil.assertTrue(timeout > 0, "timeout must be positive");
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * @param initialDelay The delay in milliseconds before the first retry.
+     * @param maxDelay The maximum delay in milliseconds, the delay doubles after each failed attempt.
+     * @return {@link DbUpdatesFollower}
+     */
+    public DbUpdatesFollower backoff(long initialDelay, long maxDelay) {
+        CouchDbUtil.assertTrue(initialDelay > 0 && maxDelay >= initialDelay, "invalid backoff delays");
+        this.initialBackoff = initialDelay;
+        this.maxBackoff = maxDelay;
+        return this;
+    }
+
+    /**
+     * @param filter Selects the databases to follow by name.
+     * @return {@link DbUpdatesFollower}
+     */
+    public DbUpdatesFollower filter(Predicate<String> filter) {
+        assertNotEmpty(filter, "filter");
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Starts following the feed on a dedicated thread, handing each event to the listener.
+     *
+     * @param listener Called for each event, in order.
+     * @return {@link DbUpdatesFollower}
+     */
+    public DbUpdatesFollower start(Consumer<DbUpdatesResult> listener) {
+        assertNotEmpty(listener, "listener");
+        return follow(updates -> {
+            for (DbUpdatesResult update : updates.getResults()) {
+                if (filter.test(update.getDbName())) {
+                    listener.accept(update);
+                }
+            }
+            synchronized (lock) {
+                completedSeq = updates.getLastSeq();
+            }
+        });
+    }
+
+    /**
+     * Starts following the feed on a dedicated thread, running a task for each created or updated database.
+     *
+     * @param workers The number of tasks run concurrently, for distinct databases.
+     * @param task Called with the name of a database updated since the start of its previous run. A failing task is
+     *            retried with backoff, a task should therefore consider a database deleted meanwhile as done.
+     * @return {@link DbUpdatesFollower}
+     */
+    public DbUpdatesFollower dispatch(int workers, Consumer<String> task) {
+        CouchDbUtil.assertTrue(workers > 0, "workers must be positive");
+        assertNotEmpty(task, "task");
+        final AtomicInteger threads = new AtomicInteger();
+        synchronized (lock) {
+            if (thread != null) {
+                throw new IllegalStateException("DbUpdatesFollower is already started");
+            }
+            this.workers = Executors.newFixedThreadPool(workers, r -> {
+                final Thread worker = new Thread(r, "lightcouch-db-updates-" + threads.incrementAndGet());
+                worker.setDaemon(true);
+                return worker;
+            });
+        }
+        return follow(updates -> {
+            final Set<String> names = new LinkedHashSet<>();
+            for (DbUpdatesResult update : updates.getResults()) {
+                if (!"deleted".equals(update.getType()) && filter.test(update.getDbName())) {
+                    names.add(update.getDbName());
+                }
+            }
+            synchronized (lock) {
+                final Batch batch = new Batch(updates.getLastSeq(), names.size());
+                batches.add(batch);
+                for (String name : names) {
+                    final Database database = databases.computeIfAbsent(name, Database::new);
+                    database.pending.add(batch);
+                    if (!database.scheduled) {
+                        database.scheduled = true;
+                        this.workers.execute(() -> run(database, task));
+                    }
+                }
+                completeBatches();
+            }
+        });
+    }
+
+    /**
+     * @return The sequence up to which the updates are processed, or {@code null} if none.
+     */
+    public String getSince() {
+        synchronized (lock) {
+            return completedSeq;
+        }
+    }
+
+    /**
+     * Stops following the feed, waiting for the running tasks, then saves the checkpoint.
+     */
+    @Override
+    public void close() {
+        final Thread current;
+        synchronized (lock) {
+            stopped = true;
+            current = thread;
+            if (request != null) {
+                request.cancel();
+            }
+            lock.notifyAll();
+        }
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private DbUpdatesFollower follow(Consumer<DbUpdates> handler) {
+        synchronized (lock) {
+            if (thread != null) {
+                throw new IllegalStateException("DbUpdatesFollower is already started");
+            }
+            thread = new Thread(() -> poll(handler), "lightcouch-db-updates-follower");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return this;
+    }
+
+    private void poll(Consumer<DbUpdates> handler) {
+        try {
+            since = checkpoints.load();
+            checkpointed = since;
+            if (since == null) {
+                since = initialSince;
+            }
+        } catch (RuntimeException e) {
+            log.error("Error loading the db updates checkpoint, not following the updates", e);
+            return;
+        }
+        int failures = 0;
+        while (!stopped) {
+            try {
+                final DbUpdates updates = request();
+                if (updates == null) {
+                    break; // closed
+                }
+                handler.accept(updates);
+                if (updates.getLastSeq() != null) {
+                    since = updates.getLastSeq();
+                }
+                failures = 0;
+                checkpoint();
+            } catch (RuntimeException e) {
+                if (stopped) {
+                    break;
+                }
+                final long delay = backoff(failures++);
+                log.warn("Db updates feed failed, resuming from " + since + " in " + delay + " ms", e);
+                await(delay);
+            }
+        }
+        final ExecutorService pool;
+        synchronized (lock) {
+            pool = workers;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        checkpoint();
+    }
+
+    private DbUpdates request() {
+        final URIBuilder builder = buildUri(dbc.getBaseUri()).path("_db_updates")
+                .query("feed", "longpoll").query("timeout", timeout);
+        if (since != null) {
+            builder.query("since", since);
+        }
+        final URI uri = builder.build();
+        final HttpGet get = new HttpGet(uri);
+        synchronized (lock) {
+            if (stopped) {
+                return null;
+            }
+            request = get;
+        }
+        InputStream in = null;
+        try {
+            in = dbc.get(get);
+            final DbUpdates updates = dbc.getSerializer().fromJson(new InputStreamReader(in, StandardCharsets.UTF_8),
+                    DbUpdates.class);
+            if (updates.getResults() == null) {
+                updates.setResults(new ArrayList<>());
+            }
+            return updates;
+        } finally {
+            CouchDbUtil.close(in);
+            synchronized (lock) {
+                request = null;
+            }
+        }
+    }
+
+    private void run(Database database, Consumer<String> task) {
+        int failures = 0;
+        while (true) {
+            final List<Batch> covered;
+            synchronized (lock) {
+                if (database.pending.isEmpty()) {
+                    database.scheduled = false;
+                    databases.remove(database.name);
+                    return;
+                }
+                covered = new ArrayList<>(database.pending);
+                database.pending.clear();
+            }
+            try {
+                task.accept(database.name);
+                failures = 0;
+                synchronized (lock) {
+                    for (Batch batch : covered) {
+                        batch.remaining--;
+                    }
+                    completeBatches();
+                }
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    database.pending.addAll(0, covered);
+                }
+                final long delay = backoff(failures++);
+                log.warn("Error processing the updates of " + database.name + ", retrying in " + delay + " ms", e);
+                await(delay);
+                if (stopped) {
+                    return; // the checkpoint does not cover the failed updates
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances the completed sequence past the batches whose tasks all completed. Must be called holding the lock.
+     */
+    private void completeBatches() {
+        while (!batches.isEmpty() && batches.peekFirst().remaining == 0) {
+            completedSeq = batches.pollFirst().seq;
+        }
+    }
+
+    private void checkpoint() {
+        final String seq;
+        synchronized (lock) {
+            seq = completedSeq;
+        }
+        if (seq == null || seq.equals(checkpointed)) {
+            return;
+        }
+        try {
+            checkpoints.save(seq);
+            checkpointed = seq;
+        } catch (RuntimeException e) {
+            log.warn("Error saving the db updates checkpoint " + seq, e);
+        }
+    }
+
+    /**
+     * @return The delay before the next attempt, doubling on each failure, with jitter.
+     */
+    private long backoff(int failures) {
+        final long delay = Math.min(maxBackoff, initialBackoff << Math.min(failures, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void await(long delay) {
+        final long deadline = System.currentTimeMillis() + delay;
+        synchronized (lock) {
+            long remaining = delay;
+            while (!stopped && remaining > 0) {
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * The updates of a longpoll response, completed when the tasks of all its databases have run.
+     */
+    private static class Batch {
+        final String seq;
+        int remaining;
+
+        Batch(String seq, int remaining) {
+            this.seq = seq;
+            this.remaining = remaining;
+        }
+    }
+
+    /**
+     * The updates of a database not yet covered by a run of its task.
+     */
+    private static class Database {
+        final String name;
+        final List<Batch> pending = new ArrayList<>();
+        boolean scheduled;
+
+        Database(String name) {
+            this.name = name;
+        }
+    }
+}
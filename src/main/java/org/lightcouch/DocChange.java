@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row.Rev;
+
+import java.util.List;
+
+/**
+ * A row of a changes feed with its document decoded as <tt>D</tt>, or kept as {@link RawJson}.
+ *
+ * @param <D> The type of the document.
+ * @see Changes#next(Class)
+ * @see Changes#nextRaw()
+ * @since 0.3.3
+ */
+public class DocChange<D> {
+    private String seq;
+    private String id;
+    private List<Rev> changes;
+    private boolean deleted;
+    private transient D doc;
+
+    DocChange() {
+        // created by the serializer
+    }
+
+    public String getSeq() {
+        return seq;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<Rev> getChanges() {
+        return changes;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return The document, or {@code null} without <tt>include_docs</tt>.
+     */
+    public D getDoc() {
+        return doc;
+    }
+
+    void setDoc(D doc) {
+        this.doc = doc;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.util.Objects;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * A document id, with an optional revision, requested from {@link CouchDbClientBase#bulkGet(java.util.List, Class)}.
+ *
+ * @since 0.3.3
+ */
+public final class DocRef {
+
+    private final String id;
+    private final String rev;
+
+    /**
+     * @param id The document id; the latest revision is requested.
+     */
+    public DocRef(String id) {
+        this(id, null);
+    }
+
+    /**
+     * @param id The document id.
+     * @param rev The revision, or {@code null} for the latest one.
+     */
+    public DocRef(String id, String rev) {
+        assertNotEmpty(id, "id");
+        this.id = id;
+        this.rev = rev;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRev() {
+        return rev;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DocRef)) {
+            return false;
+        }
+        final DocRef other = (DocRef) o;
+        return id.equals(other.id) && Objects.equals(rev, other.rev);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, rev);
+    }
+
+    @Override
+    public String toString() {
+        return rev == null ? id : id + "@" + rev;
+    }
+}
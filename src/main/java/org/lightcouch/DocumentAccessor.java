@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.gson.annotations.SerializedName;
+import org.lightcouch.serializer.Serializer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads the <code>_id</code> and <code>_rev</code> of document objects from their fields, without converting them
+ * to a JSON tree.
+ * <p>
+ * The fields are looked up once per class: the first non static, non transient fields named <code>_id</code> and
+ * <code>_rev</code> in JSON, by their own name or by a {@link JsonProperty} or {@link SerializedName} annotation, as in
+ * {@link Document}. Classes declaring none of them, maps and JSON trees are read from their JSON tree instead.
+ *
+ * @since 0.3.3
+ */
+final class DocumentAccessor {
+
+    private static final ClassValue<DocumentAccessor> ACCESSORS = new ClassValue<DocumentAccessor>() {
+        @Override
+        protected DocumentAccessor computeValue(Class<?> type) {
+            return new DocumentAccessor(type);
+        }
+    };
+
+    private final VarHandle id;
+    private final VarHandle rev;
+
+    private DocumentAccessor(Class<?> type) {
+        final Field idField = find(type, "_id");
+        final Field revField = find(type, "_rev");
+        this.id = handle(idField);
+        this.rev = handle(revField);
+    }
+
+    /**
+     * Reads the id and revision of a document.
+     *
+     * @param serializer The serializer, for the documents whose fields are not known.
+     * @param object The document.
+     * @return The id and revision, and the object to serialize as the document.
+     */
+    static <JoT> Keys read(Serializer<JoT, ?> serializer, Object object) {
+        final DocumentAccessor accessor = ACCESSORS.get(object.getClass());
+        if (accessor.id != null && accessor.rev != null) {
+            return new Keys(string(accessor.id.get(object)), string(accessor.rev.get(object)), object);
+        }
+        final JoT json = serializer.getAsJsonObject(object);
+        return new Keys(serializer.getId(json), serializer.getRev(json), json);
+    }
+
+    private static Field find(Class<?> type, String name) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                        || field.isAnnotationPresent(JsonIgnore.class)) {
+                    continue;
+                }
+                if (name.equals(jsonName(field))) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String jsonName(Field field) {
+        final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+        if (serializedName != null) {
+            return serializedName.value();
+        }
+        final JsonProperty property = field.getAnnotation(JsonProperty.class);
+        if (property != null && !property.value().isEmpty()) {
+            return property.value();
+        }
+        return field.getName();
+    }
+
+    private static VarHandle handle(Field field) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+        } catch (IllegalAccessException | RuntimeException e) { // not open to us, read from the tree
+            return null;
+        }
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * The id and revision of a document.
+     */
+    static final class Keys {
+        final String id;
+        final String rev;
+        /** The document object, or its JSON tree when it was needed to read the keys. */
+        final Object json;
+
+        Keys(String id, String rev, Object json) {
+            this.id = id;
+            this.rev = rev;
+            this.json = json;
+        }
+    }
+}
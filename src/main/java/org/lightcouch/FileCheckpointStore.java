@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Keeps a checkpoint in a text file, written to a temporary file then moved over the previous one.
+ *
+ * @see CheckpointStore#file(Path)
+ * @since 0.3.3
+ */
+class FileCheckpointStore implements CheckpointStore {
+
+    private final Path file;
+    private final Path tmp;
+
+    FileCheckpointStore(Path file) {
+        assertNotEmpty(file, "file");
+        this.file = file.toAbsolutePath();
+        this.tmp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    }
+
+    @Override
+    public synchronized String load() {
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            final String seq = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+            return seq.isEmpty() ? null : seq;
+        } catch (IOException e) {
+            throw new CouchDbException("Error reading checkpoint " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(String seq) {
+        try {
+            Files.write(tmp, seq.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new CouchDbException("Error writing checkpoint " + file, e);
+        }
+    }
+}
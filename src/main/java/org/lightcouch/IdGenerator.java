@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+/**
+ * Generates the ids of new documents, for {@link CouchDbClientBase#save(Object)} and
+ * {@link CouchDbClientBase#saveAttachment(java.io.InputStream, String, String)}.
+ * <p>
+ * Implementations are called concurrently by all the threads using the client.
+ *
+ * @see CouchDbClientBase#setIdGenerator(IdGenerator)
+ * @since 0.3.3
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @return A new document id, unique in the database.
+     */
+    String nextId();
+
+    /**
+     * @return A generator of random UUIDs, spreading inserts over the whole id range. The default.
+     */
+    static IdGenerator random() {
+        return CouchDbUtil::generateUUID;
+    }
+
+    /**
+     * @return A generator of ids increasing with time, see {@link TimeOrderedIdGenerator}.
+     */
+    static IdGenerator timeOrdered() {
+        return new TimeOrderedIdGenerator();
+    }
+}
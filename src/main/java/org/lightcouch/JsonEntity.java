@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.lightcouch.serializer.Serializer;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A JSON request entity serialized straight to the connection output stream, sent chunked.
+ * <p>
+ * The body is written again on each {@link #writeTo(OutputStream)}, the entity is therefore repeatable as long as the
+ * objects it writes are not modified.
+ *
+ * @since 0.3.3
+ */
+final class JsonEntity extends AbstractHttpEntity {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Body body;
+
+    private JsonEntity(Body body) {
+        super(ContentType.APPLICATION_JSON, null, true);
+        this.body = body;
+    }
+
+    /**
+     * @return An entity writing a single document.
+     */
+    static JsonEntity of(Serializer<?, ?> serializer, Object object) {
+        return new JsonEntity(writer -> serializer.toJson(object, writer));
+    }
+
+    /**
+     * @return An entity writing a <tt>_bulk_docs</tt> request, each document serialized in turn.
+     */
+    static JsonEntity bulkDocs(Serializer<?, ?> serializer, List<?> docs, boolean newEdits) {
+        return new JsonEntity(writer -> {
+            writer.write(newEdits ? "{\"new_edits\":true,\"docs\":[" : "{\"new_edits\":false,\"docs\":[");
+            for (int i = 0; i < docs.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                serializer.toJson(docs.get(i), writer);
+            }
+            writer.write("]}");
+        });
+    }
+
+    /**
+     * @return An entity writing a <tt>_bulk_docs</tt> request of already serialized documents.
+     */
+    static JsonEntity bulkDocs(List<String> docs, boolean newEdits) {
+        return new JsonEntity(writer -> {
+            writer.write(newEdits ? "{\"new_edits\":true,\"docs\":[" : "{\"new_edits\":false,\"docs\":[");
+            for (int i = 0; i < docs.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(docs.get(i));
+            }
+            writer.write("]}");
+        });
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            body.writeTo(writer);
+        } catch (RuntimeException e) {
+            // serializers wrap the errors of the writer, surface them as I/O errors of the request
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            throw e;
+        }
+        writer.flush(); // the connection owns the stream
+    }
+
+    /**
+     * Buffers the whole body, only for callers reading the entity instead of writing it.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        // nothing held open
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void writeTo(Writer writer) throws IOException;
+    }
+}
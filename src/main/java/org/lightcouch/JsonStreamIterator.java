@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.lightcouch.serializer.JsonArrayStream;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Converts the elements of a {@link JsonArrayStream} read from an HTTP response as they are iterated.
+ * <p>
+ * The response is released at the end of the array; closing the iterator before aborts the request, so the rest
+ * of a large response is not read.
+ *
+ * @since 0.3.3
+ */
+class JsonStreamIterator<JeT, T> implements CloseableIterator<T> {
+
+    private final HttpUriRequestBase request;
+    private final JsonArrayStream<JeT> stream;
+    private final Function<JeT, T> converter;
+    private boolean closed;
+
+    JsonStreamIterator(HttpUriRequestBase request, JsonArrayStream<JeT> stream, Function<JeT, T> converter) {
+        this.request = request;
+        this.stream = stream;
+        this.converter = converter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        final boolean hasNext;
+        try {
+            hasNext = stream.hasNext();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        if (!hasNext) { // fully read, the connection is reusable
+            closed = true;
+            stream.close();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return converter.apply(stream.next());
+    }
+
+    /**
+     * @param name The field name.
+     * @return A field of the response object other than the streamed array, see {@link JsonArrayStream#getField}.
+     */
+    JeT getField(String name) {
+        return stream.getField(name);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            request.cancel();
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Keeps a checkpoint in the <tt>_local/{name}</tt> document, as <code>{"seq": "..."}</code>.
+ *
+ * @see CheckpointStore#localDocument(CouchDbClientBase, String)
+ * @since 0.3.3
+ */
+class LocalDocumentCheckpointStore implements CheckpointStore {
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final URI uri;
+    private String rev;
+
+    LocalDocumentCheckpointStore(CouchDbClientBase<?, ?> dbc, String name) {
+        assertNotEmpty(name, "name");
+        this.dbc = dbc;
+        this.uri = buildUri(dbc.getDBUri()).path("_local/").pathEncoded(name).build();
+    }
+
+    @Override
+    public synchronized String load() {
+        try {
+            final Map<?, ?> doc = dbc.get(uri, Map.class);
+            rev = (String) doc.get("_rev");
+            final Object seq = doc.get("seq");
+            return seq == null ? null : seq.toString();
+        } catch (NoDocumentException e) {
+            rev = null;
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void save(String seq) {
+        try {
+            write(seq);
+        } catch (DocumentConflictException e) { // saved by another instance, or rev not loaded
+            load();
+            write(seq);
+        }
+    }
+
+    private void write(String seq) {
+        final Map<String, Object> doc = new HashMap<>();
+        if (rev != null) {
+            doc.put("_rev", rev);
+        }
+        doc.put("seq", seq);
+        final byte[] json = dbc.getSerializer().toJson(doc).getBytes(StandardCharsets.UTF_8);
+        rev = dbc.put(uri, new ByteArrayInputStream(json), "application/json").getRev();
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Watches the changes of many databases with longpoll requests of a {@link CouchDbAsyncClient}, keeping at most
+ * <tt>maxInFlight</tt> requests open.
+ * <p>
+ * No thread waits for a poll: the requests are served by the I/O threads of the client and the listeners run on its
+ * executor. A watch is polled again from the <tt>last_seq</tt> of a response once its listener returns, and waits
+ * for a free slot when <tt>maxInFlight</tt> polls are open, slots being handed to the waiting watches in turn. With
+ * many more watches than slots, a shorter {@link #timeout(long) timeout} rotates the slots faster.
+ * <p>
+ * A failed poll, or a listener that throws, is retried from the same sequence with exponential backoff.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * LongPollScheduler scheduler = asyncClient.longPollScheduler(100).timeout(30000);
+ * for (String tenant : tenants) {
+ *     scheduler.watch(tenant, "now", changes -&gt; index(tenant, changes.getResults()));
+ * }
+ * scheduler.close();
+ * </pre>
+ *
+ * @see CouchDbAsyncClient#longPollScheduler(int)
+ * @see Changes#longPollChanges()
+ * @since 0.3.3
+ */
+public class LongPollScheduler implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LongPollScheduler.class);
+
+    private final CouchDbAsyncClient<?, ?> client;
+    private final int maxInFlight;
+    private final ScheduledExecutorService timer;
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+    private long timeout = 60000;
+    private boolean includeDocs;
+    private long initialBackoff = 100;
+    private long maxBackoff = 60000;
+
+    private final Object lock = new Object();
+    private final Queue<Watch> ready = new ArrayDeque<>();
+    private int inFlight;
+    private boolean closed;
+
+    LongPollScheduler(CouchDbAsyncClient<?, ?> client, int maxInFlight) {
+        CouchDbUtil.assertTrue(maxInFlight > 0, "maxInFlight must be positive");
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "lightcouch-longpoll-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param timeout The time in milliseconds the server waits for changes before answering a poll, which must be
+     *            shorter than the socket timeout of the client. Defaults to 60 seconds.
+     * @return {@link LongPollScheduler}
+     */
+    public LongPollScheduler timeout(long timeout) {
+        CouchDbUtil.assertTrue(timeout > 0, "timeout must be positive");
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * @param includeDocs Whether the rows include the documents.
+     * @return {@link LongPollScheduler}
+     */
+    public LongPollScheduler includeDocs(boolean includeDocs) {
+        this.includeDocs = includeDocs;
+        return this;
+    }
+
+    /**
+     * @param initialDelay The delay in milliseconds before the first retry.
+     * @param maxDelay The maximum delay in milliseconds, the delay doubles after each failed attempt.
+     * @return {@link LongPollScheduler}
+     */
+    public LongPollScheduler backoff(long initialDelay, long maxDelay) {
+        CouchDbUtil.assertTrue(initialDelay > 0 && maxDelay >= initialDelay, "invalid backoff delays");
+        this.initialBackoff = initialDelay;
+        this.maxBackoff = maxDelay;
+        return this;
+    }
+
+    /**
+     * Starts watching the changes of a database.
+     *
+     * @param dbName The database name.
+     * @param since The sequence to start from, e.g. <tt>now</tt>, or {@code null} for the beginning of the feed.
+     * @param listener Called with each non empty response, in order, one at a time.
+     * @return {@link Watch}
+     */
+    public Watch watch(String dbName, String since, Consumer<ChangesResult> listener) {
+        assertNotEmpty(dbName, "dbName");
+        assertNotEmpty(listener, "listener");
+        final Watch watch = new Watch(dbName, since, listener);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("LongPollScheduler is closed");
+            }
+            watches.add(watch);
+        }
+        schedule(watch);
+        return watch;
+    }
+
+    /**
+     * @return The number of watches.
+     */
+    public int getWatchCount() {
+        return watches.size();
+    }
+
+    /**
+     * @return The number of open polls.
+     */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Closes all the watches, cancelling the open polls.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        for (Watch watch : new ArrayList<>(watches)) {
+            watch.close();
+        }
+        timer.shutdownNow();
+    }
+
+    private void schedule(Watch watch) {
+        synchronized (lock) {
+            if (closed || watch.closed) {
+                return;
+            }
+            ready.add(watch);
+        }
+        drain();
+    }
+
+    /**
+     * Opens polls for the waiting watches while slots are free.
+     */
+    private void drain() {
+        while (true) {
+            final Watch watch;
+            synchronized (lock) {
+                if (inFlight >= maxInFlight || ready.isEmpty()) {
+                    return;
+                }
+                watch = ready.poll();
+                inFlight++;
+            }
+            poll(watch);
+        }
+    }
+
+    private void poll(Watch watch) {
+        final URIBuilder builder = buildUri(client.getBaseUri()).pathEncoded(watch.dbName).path("/").path("_changes")
+                .query("feed", "longpoll").query("timeout", timeout);
+        if (includeDocs) {
+            builder.query("include_docs", true);
+        }
+        final String since = watch.since;
+        if (since != null) {
+            builder.query("since", since);
+        }
+        final URI uri = builder.build();
+        final SimpleHttpRequest get = SimpleRequestBuilder.get(uri).addHeader(CouchDbClientBase.ACCEPT_JSON).build();
+        final CompletableFuture<ChangesResult> call;
+        try {
+            call = client.execute(get, reader -> client.getSerializer().fromJson(reader, ChangesResult.class));
+        } catch (RuntimeException e) { // client shut down
+            release();
+            retry(watch, e);
+            return;
+        }
+        synchronized (lock) {
+            watch.call = call;
+        }
+        call.whenComplete((result, error) -> {
+            release();
+            if (error == null) {
+                handle(watch, result);
+            } else if (!call.isCancelled()) {
+                retry(watch, error);
+            }
+        });
+    }
+
+    private void release() {
+        synchronized (lock) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    private void handle(Watch watch, ChangesResult result) {
+        if (watch.closed) {
+            return;
+        }
+        try {
+            if (result.getResults() != null && !result.getResults().isEmpty()) {
+                watch.listener.accept(result);
+            }
+        } catch (RuntimeException e) {
+            retry(watch, e);
+            return;
+        }
+        if (result.getLastSeq() != null) {
+            watch.since = result.getLastSeq();
+        }
+        watch.failures = 0;
+        schedule(watch);
+    }
+
+    private void retry(Watch watch, Throwable error) {
+        if (watch.closed) {
+            return;
+        }
+        final long delay = backoff(watch.failures++);
+        log.warn("Error watching the changes of " + watch.dbName + ", retrying in " + delay + " ms", error);
+        try {
+            timer.schedule(() -> schedule(watch), delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.debug("Scheduler closed: {}", e.toString());
+        }
+    }
+
+    /**
+     * @return The delay before the next attempt, doubling on each failure, with jitter.
+     */
+    private long backoff(int failures) {
+        final long delay = Math.min(maxBackoff, initialBackoff << Math.min(failures, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * The changes watch of a database.
+     */
+    public class Watch implements Closeable {
+        private final String dbName;
+        private final Consumer<ChangesResult> listener;
+        private volatile String since;
+        private volatile boolean closed;
+        private int failures; // accessed by one callback at a time
+        private CompletableFuture<?> call;
+
+        Watch(String dbName, String since, Consumer<ChangesResult> listener) {
+            this.dbName = dbName;
+            this.since = since;
+            this.listener = listener;
+        }
+
+        public String getDbName() {
+            return dbName;
+        }
+
+        /**
+         * @return The sequence the next poll starts from, after the changes handed to the listener.
+         */
+        public String getSince() {
+            return since;
+        }
+
+        /**
+         * Stops watching, cancelling the open poll.
+         */
+        @Override
+        public void close() {
+            final CompletableFuture<?> current;
+            synchronized (lock) {
+                closed = true;
+                ready.remove(this);
+                current = call;
+            }
+            watches.remove(this);
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
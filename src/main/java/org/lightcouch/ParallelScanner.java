@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans a view, or <tt>_all_docs</tt>, split in key ranges read concurrently.
+ * <p>
+ * Each range is walked by its own {@link ViewScanner} on a dedicated {@link ForkJoinPool}, with one worker and one
+ * connection per range: the connection pool should allow as many connections as there are partitions. The rows are
+ * delivered either to a consumer called concurrently from the workers, or as a stream in the view order, the ranges
+ * being read ahead into bounded buffers while the previous ones are consumed.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * // random ids, split on their first hex digits
+ * dbClient.view("_all_docs").includeDocs(true)
+ *     .scanParallel(ParallelScanner.hexBoundaries(16), 1000, Foo.class)
+ *     .forEach(foo -&gt; ...);
+ *
+ * // boundaries sampled from the view, rows in the view order
+ * try (Stream&lt;Foo&gt; foos = dbClient.view("example/foo").scanParallel(8, 1000, Foo.class).stream()) {
+ *     foos.forEach(...);
+ * }
+ * </pre>
+ *
+ * @param <T> The type of the rows, or of the documents if <tt>include_docs</tt> is set.
+ * @see View#scanParallel(int, int, Class)
+ * @see View#scanParallel(List, int, Class)
+ * @since 0.3.3
+ */
+public class ParallelScanner<T> {
+
+    private static final Object END = new Object();
+    private static final Object NULL = new Object();
+
+    private final List<Supplier<ViewScanner<T>>> ranges;
+    private final int bufferSize;
+
+    ParallelScanner(List<Supplier<ViewScanner<T>>> ranges, int pageSize) {
+        this.ranges = ranges;
+        this.bufferSize = 2 * pageSize;
+    }
+
+    /**
+     * Splits the space of hex encoded ids, such as the random UUIDs generated by CouchDB or by
+     * {@link IdGenerator#random()}, in ranges of the same size. Time ordered ids, e.g. from
+     * {@link IdGenerator#timeOrdered()}, share their first digits and would mostly fall in one range: sample their
+     * boundaries with {@link View#scanParallel(int, int, Class)} instead.
+     *
+     * @param partitions The number of ranges, up to 65536.
+     * @return The ids starting each range but the first.
+     */
+    public static List<String> hexBoundaries(int partitions) {
+        CouchDbUtil.assertTrue(partitions > 0 && partitions <= 0x10000, "partitions must be between 1 and 65536");
+        final List<String> boundaries = new ArrayList<String>(partitions - 1);
+        for (int i = 1; i < partitions; i++) {
+            boundaries.add(String.format("%04x", i * 0x10000 / partitions));
+        }
+        return boundaries;
+    }
+
+    /**
+     * @return The number of key ranges.
+     */
+    public int getPartitions() {
+        return ranges.size();
+    }
+
+    /**
+     * Scans all the ranges concurrently, waiting for the scan to complete.
+     *
+     * @param action Called concurrently for the rows of different ranges, in the view order within a range.
+     */
+    public void forEach(Consumer<? super T> action) {
+        final ForkJoinPool pool = newPool();
+        try {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(ranges.size());
+            for (Supplier<ViewScanner<T>> range : ranges) {
+                tasks.add(pool.submit(() -> {
+                    try (ViewScanner<T> scanner = range.get()) {
+                        scanner.forEachRemaining(action);
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdownNow(); // stops the other ranges on error
+        }
+    }
+
+    /**
+     * Scans all the ranges concurrently, merging the rows back in the view order.
+     * <p>
+     * The stream should be closed, preferably in a <code>try-with-resources</code> block.
+     *
+     * @return The rows as a sequential {@link Stream}.
+     */
+    public Stream<T> stream() {
+        final Merge merge = new Merge();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge, Spliterator.ORDERED), false)
+                .onClose(merge::close);
+    }
+
+    private ForkJoinPool newPool() {
+        final AtomicInteger workers = new AtomicInteger();
+        return new ForkJoinPool(ranges.size(), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("lightcouch-parallel-scan-" + workers.incrementAndGet());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Reads the ranges in order from the buffers filled by the workers.
+     */
+    private class Merge implements CloseableIterator<T> {
+        private final ForkJoinPool pool = newPool();
+        private final List<BlockingQueue<Object>> buffers = new ArrayList<BlockingQueue<Object>>(ranges.size());
+        private int range;
+        private Object next;
+
+        Merge() {
+            for (Supplier<ViewScanner<T>> scanner : ranges) {
+                final BlockingQueue<Object> buffer = new ArrayBlockingQueue<Object>(bufferSize);
+                buffers.add(buffer);
+                pool.execute(() -> fill(scanner, buffer));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && range < buffers.size()) {
+                final Object element;
+                try {
+                    element = buffers.get(range).take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new CouchDbException(e);
+                }
+                if (element == END) {
+                    range++;
+                } else if (element instanceof Failure) {
+                    close();
+                    throw ((Failure) element).error;
+                } else {
+                    next = element;
+                }
+            }
+            return next != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Object element = next;
+            next = null;
+            return element == NULL ? null : (T) element;
+        }
+
+        @Override
+        public void close() {
+            range = buffers.size();
+            next = null;
+            pool.shutdownNow();
+        }
+
+        private void fill(Supplier<ViewScanner<T>> range, BlockingQueue<Object> buffer) {
+            try {
+                try (ViewScanner<T> scanner = range.get()) {
+                    while (scanner.hasNext()) {
+                        final T row = scanner.next();
+                        buffer.put(row == null ? NULL : row);
+                    }
+                } catch (RuntimeException e) {
+                    buffer.put(new Failure(e));
+                    return;
+                }
+                buffer.put(END);
+            } catch (InterruptedException e) {
+                // closed
+            }
+        }
+    }
+
+    private static class Failure {
+        final RuntimeException error;
+
+        Failure(RuntimeException error) {
+            this.error = error;
+        }
+    }
+}
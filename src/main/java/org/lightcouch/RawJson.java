@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.serializer.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JSON value kept as received, parsed only if and when it is converted with {@link #as(Class)}.
+ *
+ * @see Changes#nextRaw()
+ * @since 0.3.3
+ */
+public final class RawJson {
+
+    private final String json;
+    private final Serializer<?, ?> serializer;
+
+    RawJson(String json, Serializer<?, ?> serializer) {
+        this.json = json;
+        this.serializer = serializer;
+    }
+
+    /**
+     * @return The JSON text encoded as UTF-8.
+     */
+    public byte[] getBytes() {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the JSON text.
+     *
+     * @param type The class to convert to.
+     * @return The converted value.
+     */
+    public <T> T as(Class<T> type) {
+        return serializer.fromJson(json, type);
+    }
+
+    /**
+     * @return The JSON text.
+     */
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    /**
+     * Locates a field of a JSON object without parsing its values.
+     *
+     * @param json A JSON object.
+     * @param field The name of a top level field, without escape sequences.
+     * @return The start and end indexes of the field value, or {@code null} if the object has no such field.
+     */
+    static int[] locateField(String json, String field) {
+        int i = skipWhitespace(json, 0);
+        if (i >= json.length() || json.charAt(i) != '{') {
+            throw new IllegalArgumentException("Not a JSON object");
+        }
+        i = skipWhitespace(json, i + 1);
+        while (i < json.length() && json.charAt(i) == '"') {
+            final int keyEnd = skipString(json, i);
+            final boolean found = keyEnd - i - 2 == field.length() && json.startsWith(field, i + 1);
+            i = skipWhitespace(json, keyEnd);
+            if (i >= json.length() || json.charAt(i) != ':') {
+                break;
+            }
+            final int start = skipWhitespace(json, i + 1);
+            final int end = skipValue(json, start);
+            if (found) {
+                return new int[] { start, end };
+            }
+            i = skipWhitespace(json, end);
+            if (i < json.length() && json.charAt(i) == ',') {
+                i = skipWhitespace(json, i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a field of the last element of an array field without parsing its values, e.g. the <tt>key</tt> of the
+     * last row of a view result.
+     *
+     * @param json A JSON object.
+     * @param arrayField The name of a top level array field, without escape sequences.
+     * @param field The name of a field of the array elements, without escape sequences.
+     * @return The JSON text of the field of the last element, or {@code null} if the array is empty or its last
+     *         element has no such field.
+     */
+    static String lastElementField(String json, String arrayField, String field) {
+        final int[] array = locateField(json, arrayField);
+        if (array == null || json.charAt(array[0]) != '[') {
+            return null;
+        }
+        int last = -1;
+        int lastEnd = -1;
+        int i = skipWhitespace(json, array[0] + 1);
+        while (i < array[1] - 1) { // up to the closing bracket
+            last = i;
+            lastEnd = skipValue(json, i);
+            i = skipWhitespace(json, lastEnd);
+            if (i < json.length() && json.charAt(i) == ',') {
+                i = skipWhitespace(json, i + 1);
+            }
+        }
+        if (last < 0 || json.charAt(last) != '{') {
+            return null;
+        }
+        final String element = json.substring(last, lastEnd);
+        final int[] value = locateField(element, field);
+        return value == null ? null : element.substring(value[0], value[1]);
+    }
+
+    private static int skipWhitespace(String json, int i) {
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return The index after the closing quote of the string starting at <tt>i</tt>.
+     */
+    private static int skipString(String json, int i) {
+        for (i++; i < json.length(); i++) {
+            final char c = json.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated JSON string");
+    }
+
+    /**
+     * @return The index after the value starting at <tt>i</tt>.
+     */
+    private static int skipValue(String json, int i) {
+        if (i >= json.length()) {
+            throw new IllegalArgumentException("Missing JSON value");
+        }
+        final char first = json.charAt(i);
+        if (first == '"') {
+            return skipString(json, i);
+        }
+        if (first != '{' && first != '[') {
+            while (i < json.length() && ",}] \t\r\n".indexOf(json.charAt(i)) < 0) {
+                i++;
+            }
+            return i;
+        }
+        int depth = 0;
+        while (i < json.length()) {
+            final char c = json.charAt(i);
+            if (c == '"') {
+                i = skipString(json, i);
+                continue;
+            }
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        throw new IllegalArgumentException("Unterminated JSON value");
+    }
+}
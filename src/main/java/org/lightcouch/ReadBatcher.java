@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.serializer.Serializer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Coalesces concurrent single document reads into <tt>_all_docs</tt> requests.
+ * <p>
+ * Ids requested within <tt>window</tt> milliseconds of the first pending one are fetched together with a single
+ * <tt>POST _all_docs?include_docs=true</tt>, or as soon as <tt>maxBatchSize</tt> distinct ids are pending. Each
+ * caller gets its own document, or a {@link NoDocumentException} for a missing or deleted document. Concurrent
+ * requests for the same id share the fetched row, each one decoding its own instance of the document.
+ * <p>
+ * At most <tt>fetchers</tt> batches are fetched at a time, the following ones wait for a fetcher.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * ReadBatcher&lt;Foo&gt; foos = dbClient.readBatcher(Foo.class, 100, 5, 4);
+ * // from any number of threads
+ * Foo foo = foos.find("doc-id");
+ * // or without blocking
+ * foos.load("doc-id").thenAccept(...);
+ * foos.close();
+ * </pre>
+ *
+ * @param <T> The type of the documents.
+ * @see CouchDbClientBase#readBatcher(Class, int, long, int)
+ * @since 0.3.3
+ */
+public class ReadBatcher<T> implements Closeable {
+
+    private final CouchDbClientBase<?, ?> dbc;
+    private final Class<T> classType;
+    private final int maxBatchSize;
+    private final long window;
+    private final ScheduledExecutorService timers;
+    private final ExecutorService readers;
+
+    private final Object lock = new Object();
+    private Map<String, List<CompletableFuture<T>>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> timer;
+    private boolean closed;
+
+    ReadBatcher(CouchDbClientBase<?, ?> dbc, Class<T> classType, int maxBatchSize, long window, int fetchers) {
+        assertNotEmpty(classType, "Class");
+        CouchDbUtil.assertTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+        CouchDbUtil.assertTrue(window >= 0, "window must not be negative");
+        CouchDbUtil.assertTrue(fetchers > 0, "fetchers must be positive");
+        this.dbc = dbc;
+        this.classType = classType;
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        this.timers = Executors.newSingleThreadScheduledExecutor(daemon("lightcouch-read-batcher-timer"));
+        this.readers = Executors.newFixedThreadPool(fetchers, daemon("lightcouch-read-batcher"));
+    }
+
+    /**
+     * Finds a document, waiting for the batch it joins to be fetched.
+     *
+     * @param id The document id.
+     * @return The document.
+     * @throws NoDocumentException If the document is not found in the database.
+     */
+    public T find(String id) {
+        try {
+            return load(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CouchDbException(e.getCause());
+        }
+    }
+
+    /**
+     * Queues a document to be fetched with the next batch.
+     *
+     * @param id The document id.
+     * @return A future completing with the document, or with a {@link NoDocumentException} if the document is not
+     *         found in the database.
+     */
+    public CompletableFuture<T> load(String id) {
+        assertNotEmpty(id, "id");
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("ReadBatcher is closed");
+            }
+            pending.computeIfAbsent(id, k -> new ArrayList<>(1)).add(future);
+            if (pending.size() >= maxBatchSize) {
+                dispatch(takePending());
+            } else if (timer == null) {
+                timer = timers.schedule(this::dispatchPending, window, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Fetches the pending documents, then stops the batcher. Further reads are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dispatch(takePending());
+        }
+        timers.shutdown();
+        readers.shutdown();
+    }
+
+    private void dispatchPending() {
+        synchronized (lock) {
+            timer = null;
+            dispatch(takePending());
+        }
+    }
+
+    /**
+     * Must be called holding the lock.
+     */
+    private Map<String, List<CompletableFuture<T>>> takePending() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        final Map<String, List<CompletableFuture<T>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, List<CompletableFuture<T>>> batch) {
+        if (!batch.isEmpty()) {
+            readers.execute(() -> fetch(dbc, batch));
+        }
+    }
+
+    private <JoT, JeT> void fetch(CouchDbClientBase<JoT, JeT> dbc, Map<String, List<CompletableFuture<T>>> batch) {
+        final Serializer<JoT, JeT> serializer = dbc.getSerializer();
+        try {
+            final View<JoT, JeT> view = dbc.view("_all_docs");
+            view.includeDocs(true);
+            view.keys(new ArrayList<>(batch.keySet()));
+            final Map<String, JeT> docs = new HashMap<>();
+            try (JsonStreamIterator<JeT, JeT> rows = view.queryForRows(row -> row)) {
+                while (rows.hasNext()) {
+                    final JeT row = rows.next();
+                    final JeT doc = serializer.getKeyFromObject(row, "doc"); // null for missing and deleted documents
+                    if (doc != null) {
+                        docs.put(serializer.getAsString(serializer.toJsonObject(row), "key"), doc);
+                    }
+                }
+            }
+            for (Map.Entry<String, List<CompletableFuture<T>>> entry : batch.entrySet()) {
+                final JeT doc = docs.get(entry.getKey());
+                for (CompletableFuture<T> future : entry.getValue()) {
+                    complete(future, entry.getKey(), doc == null ? null : serializer.fromJson(doc, classType));
+                }
+            }
+        } catch (RuntimeException e) {
+            for (List<CompletableFuture<T>> futures : batch.values()) {
+                for (CompletableFuture<T> future : futures) {
+                    future.completeExceptionally(e); // no-op for the futures already completed
+                }
+            }
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, String id, T doc) {
+        if (doc != null) {
+            future.complete(doc);
+        } else {
+            future.completeExceptionally(new NoDocumentException("Document not found: " + id));
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            final Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch;
+
+/**
+ * Thrown when a request body exceeds the <tt>max_http_request_size</tt> of the server (status 413).
+ * @since 0.3.3
+ */
+public class RequestTooLargeException extends CouchDbException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RequestTooLargeException(String message) {
+		super(message);
+	}
+
+	public RequestTooLargeException(Throwable cause) {
+		super(cause);
+	}
+
+	public RequestTooLargeException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the UUIDs generated by the server, see {@link CouchDbContext#uuids(long)}, so that the ids follow the
+ * <tt>uuids/algorithm</tt> configured in CouchDB.
+ * <p>
+ * UUIDs are fetched by blocks of <tt>blockSize</tt>. The next block is fetched in the background once half of the
+ * current one is used; a caller finding none left fetches a block itself, concurrent callers do not wait for each
+ * other.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * dbClient.setIdGenerator(dbClient.context().serverIdGenerator(500));
+ * </pre>
+ *
+ * @see CouchDbContext#serverIdGenerator(int)
+ * @since 0.3.3
+ */
+public class ServerIdGenerator implements IdGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerIdGenerator.class);
+
+    private final CouchDbContext<?, ?> context;
+    private final int blockSize;
+    private final ConcurrentLinkedQueue<String> ids = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+    private final ExecutorService prefetcher;
+
+    ServerIdGenerator(CouchDbContext<?, ?> context, int blockSize) {
+        CouchDbUtil.assertTrue(blockSize > 0, "blockSize must be positive");
+        this.context = context;
+        this.blockSize = blockSize;
+        // the thread ends when idle, the generator needs no closing
+        this.prefetcher = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "lightcouch-uuids-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String nextId() {
+        final String id = ids.poll();
+        if (id == null) {
+            return fetch();
+        }
+        if (available.decrementAndGet() <= blockSize / 2 && prefetching.compareAndSet(false, true)) {
+            prefetcher.execute(this::prefetch);
+        }
+        return id;
+    }
+
+    /**
+     * @return The count of fetched UUIDs not handed out yet.
+     */
+    public int getAvailable() {
+        return Math.max(0, available.get());
+    }
+
+    /**
+     * Fetches a block for the caller, keeping the remaining UUIDs.
+     */
+    private String fetch() {
+        final List<String> block = context.uuids(blockSize);
+        if (block == null || block.isEmpty()) {
+            throw new CouchDbException("No UUIDs returned by the server");
+        }
+        add(block.subList(1, block.size()));
+        return block.get(0);
+    }
+
+    private void prefetch() {
+        try {
+            add(context.uuids(blockSize));
+        } catch (RuntimeException e) {
+            log.warn("Error prefetching UUIDs", e);
+        } finally {
+            prefetching.set(false);
+        }
+    }
+
+    private void add(List<String> block) {
+        if (block != null) {
+            ids.addAll(block);
+            available.addAndGet(block.size());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates identical requests in flight: while a request is executing, callers issuing the same request wait
+ * for it and share its response body instead of sending their own.
+ * <p>
+ * Only the raw body is shared, each caller deserializes its own result. Responses are buffered in memory, the
+ * deduplication therefore applies to the GET requests whose JSON result is read as a whole (documents found by id,
+ * view queries returning lists or values, database info), not to the streams returned to the callers such as
+ * attachments, {@link CouchDbClientBase#find(String)} or {@link View#queryForStream()}, nor to streamed feeds.
+ *
+ * @see CouchDbProperties#setSingleFlight(boolean)
+ * @see CouchDbClientBase#getSingleFlight()
+ * @since 0.3.3
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    SingleFlight() {
+        // created by the client
+    }
+
+    /**
+     * Executes the request, unless an identical one is in flight.
+     *
+     * @param key The request key, method and URI.
+     * @param request Executes the request and returns its body.
+     * @return The response body, shared by all the callers of the request. Must not be modified.
+     */
+    byte[] execute(String key, Supplier<byte[]> request) {
+        final CompletableFuture<byte[]> call = new CompletableFuture<>();
+        final CompletableFuture<byte[]> current = inFlight.putIfAbsent(key, call);
+        if (current != null) {
+            hits.increment();
+            try {
+                return current.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new CouchDbException(e.getCause());
+            }
+        }
+        misses.increment();
+        try {
+            final byte[] body = request.get();
+            call.complete(body);
+            return body;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return The number of requests served by an identical request in flight.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of requests actually sent.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight [hits=" + getHits() + ", misses=" + getMisses() + "]";
+    }
+}
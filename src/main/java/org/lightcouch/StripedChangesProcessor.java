@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.ChangesResult.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+
+/**
+ * Processes the changes feed on several threads, keeping the changes of a document in order.
+ * <p>
+ * Each change is routed by the hash of its document id to one of <tt>lanes</tt> single threaded lanes, so the
+ * changes of a document are processed one after the other, in feed order, while different documents are processed
+ * in parallel. A lane that falls behind holds back the feed once its queue is full.
+ * <p>
+ * Since lanes complete out of order, the checkpoint is the <i>safe</i> sequence: the last change such that it and all
+ * the changes before it are processed. A restart replays the changes after it, some of which may have been
+ * processed already. A handler failure retries the change with backoff, holding its lane.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * StripedChangesProcessor processor = dbClient.changesProcessor(8, CheckpointStore.localDocument(dbClient, "indexer"))
+ *     .configure(changes -&gt; changes.includeDocs(true).heartBeat(30000))
+ *     .start(row -&gt; index(row));
+ * processor.close();
+ * </pre>
+ *
+ * @see CouchDbClientBase#changesProcessor(int, CheckpointStore)
+ * @since 0.3.3
+ */
+public class StripedChangesProcessor implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(StripedChangesProcessor.class);
+    private static final int LANE_CAPACITY = 256;
+    private static final long MAX_RETRY_DELAY = 60000;
+    private static final long QUEUE_POLL = 100;
+
+    private final CheckpointStore checkpoints;
+    private final ChangesFollower<?, ?> follower;
+    private final Lane[] lanes;
+
+    /** positions of the dispatched changes not processed yet */
+    private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+    /** sequences of the dispatched changes above the last safe position */
+    private final ConcurrentSkipListMap<Long, String> seqs = new ConcurrentSkipListMap<>();
+    private long position;
+    private volatile boolean stopped;
+
+    <JoT, JeT> StripedChangesProcessor(CouchDbClientBase<JoT, JeT> dbc, int lanes, CheckpointStore checkpoints) {
+        CouchDbUtil.assertTrue(lanes > 0, "lanes must be positive");
+        assertNotEmpty(checkpoints, "checkpoints");
+        this.checkpoints = checkpoints;
+        this.lanes = new Lane[lanes];
+        // the follower resumes from the checkpoint, saved here as the safe sequence
+        this.follower = new ChangesFollower<JoT, JeT>(dbc, new CheckpointStore() {
+            @Override
+            public String load() {
+                return checkpoints.load();
+            }
+
+            @Override
+            public void save(String seq) {
+                saveSafeSeq();
+            }
+        }).reportProcessedByCaller(); // the safe sequence, reported by the lanes
+    }
+
+    /**
+     * @param options Sets the feed options, see {@link ChangesFollower#configure(Consumer)}.
+     * @return {@link StripedChangesProcessor}
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public StripedChangesProcessor configure(Consumer<Changes<?, ?>> options) {
+        assertNotEmpty(options, "options");
+        ((ChangesFollower) follower).configure(options);
+        return this;
+    }
+
+    /**
+     * @param since The sequence to start from when no checkpoint is saved, see {@link ChangesFollower#since(String)}.
+     * @return {@link StripedChangesProcessor}
+     */
+    public StripedChangesProcessor since(String since) {
+        follower.since(since);
+        return this;
+    }
+
+    /**
+     * @param rows The number of dispatched changes that triggers a checkpoint.
+     * @param interval The maximum time in milliseconds between checkpoints.
+     * @return {@link StripedChangesProcessor}
+     */
+    public StripedChangesProcessor checkpointEvery(int rows, long interval) {
+        follower.checkpointEvery(rows, interval);
+        return this;
+    }
+
+    /**
+     * Starts processing the feed.
+     *
+     * @param handler Called concurrently for changes of different documents, in order for the changes of a document.
+     * @return {@link StripedChangesProcessor}
+     */
+    public synchronized StripedChangesProcessor start(Consumer<Row> handler) {
+        assertNotEmpty(handler, "handler");
+        if (lanes[0] != null) {
+            throw new IllegalStateException("StripedChangesProcessor is already started");
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, handler);
+        }
+        follower.start(this::dispatch);
+        return this;
+    }
+
+    /**
+     * @return The sequence up to which all the changes are processed, or {@code null} if none.
+     */
+    public String getSafeSeq() {
+        final Map.Entry<Long, String> safe = safeEntry();
+        return safe == null ? null : safe.getValue();
+    }
+
+    /**
+     * Stops reading the feed, processes the dispatched changes then saves the checkpoint. A change whose handler
+     * fails is given up, it is processed again after a restart.
+     */
+    @Override
+    public void close() {
+        stopped = true; // first, a failing handler would otherwise keep the follower blocked on a full lane
+        follower.close();
+        for (Lane lane : lanes) {
+            if (lane != null) {
+                lane.join();
+            }
+        }
+        saveSafeSeq();
+    }
+
+    /**
+     * Called from the follower thread, in feed order. Blocks the feed while the lane is full, until the processor is
+     * closed.
+     */
+    private void dispatch(Row row) {
+        final long current = position++;
+        pending.add(current);
+        if (row.getSeq() != null) { // not set on every row with seq_interval
+            seqs.put(current, row.getSeq());
+        }
+        final Lane lane = lanes[Math.floorMod(row.getId().hashCode(), lanes.length)];
+        try {
+            while (!lane.queue.offer(new Dispatched(current, row), QUEUE_POLL, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    undispatch(current);
+                    throw new CouchDbException("StripedChangesProcessor is closed");
+                }
+            }
+        } catch (InterruptedException e) {
+            undispatch(current);
+            Thread.currentThread().interrupt();
+            throw new CouchDbException(e);
+        }
+    }
+
+    /**
+     * Forgets a change not handed to its lane, the follower delivers it again.
+     */
+    private void undispatch(long current) {
+        seqs.remove(current); // first, the safe sequence must not pass it
+        pending.remove(current);
+    }
+
+    /**
+     * A position is added to the pending ones before its sequence is recorded, so a recorded sequence below the first
+     * pending position, or any recorded one when none is pending, is processed.
+     */
+    private Map.Entry<Long, String> safeEntry() {
+        final Map.Entry<Long, String> last = seqs.lastEntry(); // read before the pending positions
+        final Long first = pending.ceiling(Long.MIN_VALUE);
+        return first == null ? last : seqs.lowerEntry(first);
+    }
+
+    /**
+     * Reports the safe sequence as the processed one to the monitor, computed under the lock so that it only grows.
+     */
+    private synchronized void reportSafeSeq() {
+        final Map.Entry<Long, String> safe = safeEntry();
+        if (safe != null) {
+            follower.processed(safe.getValue());
+        }
+    }
+
+    private synchronized void saveSafeSeq() {
+        final Map.Entry<Long, String> safe = safeEntry();
+        if (safe == null) {
+            return;
+        }
+        try {
+            checkpoints.save(safe.getValue());
+            seqs.headMap(safe.getKey()).clear(); // keep the saved one, the safe sequence until the next change
+        } catch (RuntimeException e) {
+            log.warn("Error saving the changes checkpoint " + safe.getValue(), e);
+        }
+    }
+
+    private static class Dispatched {
+        final long position;
+        final Row row;
+
+        Dispatched(long position, Row row) {
+            this.position = position;
+            this.row = row;
+        }
+    }
+
+    private class Lane {
+        final BlockingQueue<Dispatched> queue = new ArrayBlockingQueue<>(LANE_CAPACITY);
+        final Consumer<Row> handler;
+        final Thread thread;
+
+        Lane(int index, Consumer<Row> handler) {
+            this.handler = handler;
+            this.thread = new Thread(this::run, "lightcouch-changes-lane-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        void join() {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    final Dispatched next = queue.poll(QUEUE_POLL, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        if (stopped) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (!process(next.row)) {
+                        return;
+                    }
+                    pending.remove(next.position);
+                    reportSafeSeq();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @return false If the processor was closed before the change was processed.
+         */
+        private boolean process(Row row) throws InterruptedException {
+            long delay = 100;
+            while (true) {
+                try {
+                    handler.accept(row);
+                    return true;
+                } catch (RuntimeException e) {
+                    if (stopped) {
+                        log.warn("Change " + row.getSeq() + " of " + row.getId() + " not processed before close", e);
+                        return false;
+                    }
+                    log.warn("Error processing change of " + row.getId() + ", retrying in " + delay + " ms", e);
+                    await(delay);
+                    delay = Math.min(2 * delay, MAX_RETRY_DELAY);
+                }
+            }
+        }
+
+        /**
+         * Sleeps for the retry delay, or until the processor is closed.
+         */
+        private void await(long delay) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + delay;
+            for (long remaining = delay; remaining > 0 && !stopped; remaining = deadline - System.currentTimeMillis()) {
+                Thread.sleep(Math.min(remaining, QUEUE_POLL));
+            }
+        }
+    }
+}
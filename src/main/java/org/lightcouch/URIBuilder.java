@@ -16,10 +16,10 @@
 
 package org.lightcouch;
 
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,66 +33,71 @@ public class URIBuilder {
 	private String scheme;
 	private String host;
 	private int port;
-	private String path = "";
-	private final List<String> params = new ArrayList<String>();
+	private final StringBuilder path = new StringBuilder(64);
+	private List<String> params;
     private String user;
     private String password;
+	/** <tt>scheme://host:port/path</tt> of the URI the builder started from, reused as is */
+	private String prefix;
 	
 	public static URIBuilder buildUri() {
 		return new URIBuilder();
 	}
 
 	public static URIBuilder buildUri(URI uri) {
-		URIBuilder builder = URIBuilder.buildUri().scheme(uri.getScheme()).
-				host(uri.getHost()).port(uri.getPort()).path(uri.getPath());
+		if (uri.getRawQuery() != null || uri.getRawFragment() != null || uri.getRawUserInfo() != null) {
+			return URIBuilder.buildUri().scheme(uri.getScheme()).
+					host(uri.getHost()).port(uri.getPort()).path(uri.getPath());
+		}
+		URIBuilder builder = URIBuilder.buildUri();
+		builder.scheme = uri.getScheme();
+		builder.host = uri.getHost();
+		builder.port = uri.getPort();
+		builder.prefix = uri.toString(); // cached by the URI, no formatting per request
 		return builder;
 	}
 
 	public URIBuilder scheme(String scheme) {
+		detach();
 		this.scheme = scheme;
 		return this;
 	}
 
 	public URIBuilder host(String host) {
+		detach();
 		this.host = host;
 		return this;
 	}
 
 	public URIBuilder port(int port) {
+		detach();
 		this.port = port;
 		return this;
 	}
 	
 	public URIBuilder path(String path) {
-		this.path += path;
+		this.path.append(path);
 		return this;
 	}
 
 	public URIBuilder pathEncoded(String path) {
-		try {
-			this.path += URLEncoder.encode(path, "UTF-8");
-		} catch (UnsupportedEncodingException e) {
-			throw new IllegalArgumentException(e);
-		}
+		this.path.append(encode(path));
 		return this;
 	}
 
 	public URIBuilder query(String name, Object value) {
 		if (name != null && value != null) {
-			try {
-				name = URLEncoder.encode(name, "UTF-8");
-				value = URLEncoder.encode(String.valueOf(value), "UTF-8");
-				this.params.add(String.format("%s=%s", name, value));
-			} catch (UnsupportedEncodingException e) {
-				throw new IllegalArgumentException(e);
-			}
+			addParam(encode(name) + "=" + encode(String.valueOf(value)));
 		}
 		return this;
 	}
 
 	public URIBuilder query(Params params) {
-		if (params.getParams() != null)
-			this.params.addAll(params.getParams());
+		if (params.getParams() != null) {
+			for (String param : params.getParams()) {
+				addParam(param);
+			}
+		}
 		return this;
 	}
 
@@ -115,24 +120,60 @@ public class URIBuilder {
     }
 	
 	private URI build(boolean includeCredentials) {
-		final StringBuilder query = new StringBuilder();
-
-		for (int i = 0; i < params.size(); i++) {
-			String amp = (i != params.size() - 1) ? "&" : "";
-			query.append(params.get(i) + amp);
-		}
-
-		String q = (query.length() == 0) ? "" : "?" + query;
-		String uri = "";
+		final StringBuilder uri = new StringBuilder(128);
 		if (includeCredentials && user != null && password != null) {
-			uri = String.format("%s://%s:%s@%s:%d%s%s", scheme, user, password, host, port, path, q);
+			uri.append(scheme).append("://").append(user).append(':').append(password).append('@')
+				.append(host).append(':').append(port);
+			if (prefix != null) {
+				uri.append(URI.create(prefix).getRawPath());
+			}
+			uri.append(path);
+		} else if (prefix != null) {
+			uri.append(prefix).append(path);
 		} else {
-			uri = String.format("%s://%s:%d%s%s", scheme, host, port, path, q);
+			uri.append(scheme).append("://").append(host).append(':').append(port).append(path);
+		}
+		if (params != null) {
+			for (int i = 0; i < params.size(); i++) {
+				uri.append(i == 0 ? '?' : '&').append(params.get(i));
+			}
 		}
 		try {
-			return new URI(uri);
+			return new URI(uri.toString());
 		} catch (URISyntaxException e) {
 			throw new IllegalArgumentException(e);
 		}
 	}
+
+	private void addParam(String param) {
+		if (params == null) {
+			params = new ArrayList<String>();
+		}
+		params.add(param);
+	}
+
+	/**
+	 * Falls back to building the URI from its parts, once the scheme, host or port are changed.
+	 */
+	private void detach() {
+		if (prefix != null) {
+			path.insert(0, URI.create(prefix).getRawPath());
+			prefix = null;
+		}
+	}
+
+	/**
+	 * URL encodes a value, skipping the encoder for the common case of values that need no escaping (e.g. UUID
+	 * document ids).
+	 */
+	static String encode(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+					|| c == '-' || c == '_' || c == '.' || c == '*')) {
+				return URLEncoder.encode(value, StandardCharsets.UTF_8);
+			}
+		}
+		return value;
+	}
 }
@@ -16,20 +16,35 @@
 
 package org.lightcouch;
 
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.lightcouch.serializer.JsonArrayStream;
 import org.lightcouch.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.lightcouch.CouchDbUtil.assertNotEmpty;
 import static org.lightcouch.CouchDbUtil.close;
@@ -55,6 +70,16 @@ import static org.lightcouch.CouchDbUtil.getStream;
  * 
  * // pagination
  * Page<Foo> page = dbClient.view("example/foo").queryPage(...);
+ * 
+ * // whole view, page by page
+ * try (ViewScanner<Foo> foos = dbClient.view("example/foo").includeDocs(true).scan(500, Foo.class)) {
+ *	foos.forEachRemaining(...);
+ * }
+ * 
+ * // large results, read incrementally
+ * try (Stream<Foo> foos = dbClient.view("example/foo").includeDocs(true).queryForStream(Foo.class)) {
+ *	foos.forEach(...);
+ * }
  * }
  * </pre>
  * 
@@ -100,16 +125,24 @@ public class View<JoT, JeT> {
 	private String allDocsKeys; // bulk docs
 	
 	View(CouchDbClientBase<JoT, JeT> dbc, String viewId) {
+		this(dbc, dbc.getSerializer(), dbc.getDBUri(), viewId);
+	}
+	
+	/**
+	 * Creates a view bound to a database URI, <code>dbc</code> may be {@code null} for 
+	 * views that are executed by a {@link CouchDbAsyncClient}.
+	 */
+	View(CouchDbClientBase<JoT, JeT> dbc, Serializer<JoT, JeT> serializer, URI dbUri, String viewId) {
 		assertNotEmpty(viewId, "View id");
 		this.dbc = dbc;
-		this.serializer = dbc.getSerializer();
+		this.serializer = serializer;
 		
 		String view = viewId;
 		if(viewId.contains("/")) {
 			String[] v = viewId.split("/");
 			view = String.format("_design/%s/_view/%s", v[0], v[1]);
 		}
-		this.uriBuilder = URIBuilder.buildUri(dbc.getDBUri()).path(view);
+		this.uriBuilder = URIBuilder.buildUri(dbUri).path(view);
 	}
 	
 	// Query options
@@ -120,6 +153,9 @@ public class View<JoT, JeT> {
 	 * @return The result as an {@link InputStream}.
 	 */
 	public InputStream queryForStream() {
+		if(dbc == null) {
+			throw new IllegalStateException("This view is executed asynchronously, see CouchDbAsyncClient#query");
+		}
 		URI uri = uriBuilder.build();
 		if(allDocsKeys != null) { // bulk docs
 			return getStream(dbc.post(uri, allDocsKeys));
@@ -128,6 +164,253 @@ public class View<JoT, JeT> {
 		return dbc.get(uri);
 	}
 	
+	/**
+	 * Queries the view for a result read as a whole, shared with identical queries in flight when 
+	 * {@link SingleFlight} is enabled.
+	 */
+	private InputStream queryForResult() {
+		if(dbc == null || allDocsKeys != null) {
+			return queryForStream();
+		}
+		return dbc.getJson(uriBuilder.build(), null);
+	}
+	
+	/**
+	 * Queries a view, reading the rows as they are iterated so that memory use does not depend on the result size.
+	 * <p>The iterator should be closed if it is not read to the end, as to avoid connection leaks.
+	 * @param <T> Object type T
+	 * @param classOfT The class of type T
+	 * @return The rows, or the documents if <tt>include_docs</tt> is set, as a {@link CloseableIterator}
+	 */
+	public <T> CloseableIterator<T> queryForIterator(Class<T> classOfT) {
+		final boolean docs = Boolean.TRUE.equals(includeDocs);
+		return queryForRows(row -> serializer.fromJson(docs ? serializer.getKeyFromObject(row, "doc") : row, classOfT));
+	}
+	
+	/**
+	 * Queries a view as a {@link Stream}, see {@link #queryForIterator(Class)}.
+	 * <p>The stream should be closed, preferably in a <code>try-with-resources</code> block.
+	 * @param <T> Object type T
+	 * @param classOfT The class of type T
+	 * @return The rows, or the documents if <tt>include_docs</tt> is set, as a sequential {@link Stream}
+	 */
+	public <T> Stream<T> queryForStream(Class<T> classOfT) {
+		final CloseableIterator<T> iterator = queryForIterator(classOfT);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+				.onClose(iterator::close);
+	}
+	
+	/**
+	 * Streams the raw rows of the view. Internal use.
+	 */
+	<T> JsonStreamIterator<JeT, T> queryForRows(Function<JeT, T> converter) {
+		return queryForRows(uriBuilder.build(), allDocsKeys, converter);
+	}
+	
+	private <T> JsonStreamIterator<JeT, T> queryForRows(URI uri, String keys, Function<JeT, T> converter) {
+		if(dbc == null) {
+			throw new IllegalStateException("This view is executed asynchronously, see CouchDbAsyncClient#query");
+		}
+		final HttpUriRequestBase request;
+		final InputStream in;
+		if(keys != null) { // bulk docs
+			final HttpPost post = new HttpPost(uri);
+			in = dbc.post(post, keys);
+			request = post;
+		} else {
+			final HttpGet get = new HttpGet(uri);
+			get.addHeader(CouchDbClientBase.ACCEPT_JSON);
+			in = dbc.get(get);
+			request = get;
+		}
+		final Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+		return new JsonStreamIterator<>(request, serializer.streamArray(reader, "rows"), converter);
+	}
+	
+	/**
+	 * Walks the view, or the range set by the start and end keys, in pages of <code>pageSize</code> rows 
+	 * using keyset pagination. The next page is fetched while the current one is consumed, see {@link ViewScanner}.
+	 * <p>Reduce views are scanned by key, use <code>group(true)</code> or <code>reduce(false)</code>.
+	 * @param <T> Object type T
+	 * @param pageSize The number of rows per request.
+	 * @param classOfT The class of type T
+	 * @return The rows, or the documents if <tt>include_docs</tt> is set, as a {@link ViewScanner}
+	 */
+	public <T> ViewScanner<T> scan(int pageSize, Class<T> classOfT) {
+		assertNotEmpty(classOfT, "Class");
+		assertScan(pageSize);
+		return scanner(uriBuilder.build().toString(), pageSize, classOfT);
+	}
+	
+	/**
+	 * Splits the view, or the range set by the start and end keys, in <code>partitions</code> key ranges of about 
+	 * the same number of rows, and scans them concurrently, see {@link ParallelScanner}.
+	 * <p>The boundary keys are sampled with one <code>skip</code> query per partition, use 
+	 * {@link #scanParallel(List, int, Class)} when the key distribution is known, 
+	 * e.g. {@link ParallelScanner#hexBoundaries(int)} for random document ids. Time ordered ids are better sampled, 
+	 * they share their first hex digits.
+	 * @param <T> Object type T
+	 * @param partitions The number of key ranges, scanned in parallel.
+	 * @param pageSize The number of rows per request.
+	 * @param classOfT The class of type T
+	 * @return {@link ParallelScanner}
+	 */
+	public <T> ParallelScanner<T> scanParallel(int partitions, int pageSize, Class<T> classOfT) {
+		CouchDbUtil.assertTrue(partitions > 0, "partitions must be positive");
+		assertScan(pageSize);
+		return scanRanges(sampleBoundaries(uriBuilder.build().toString(), partitions), pageSize, classOfT);
+	}
+	
+	/**
+	 * Splits the view, or the range set by the start and end keys, at the given keys and scans the key ranges 
+	 * concurrently, see {@link ParallelScanner}.
+	 * @param <T> Object type T
+	 * @param boundaries The keys starting each range but the first, in the view order; empty for a single range.
+	 * @param pageSize The number of rows per request.
+	 * @param classOfT The class of type T
+	 * @return {@link ParallelScanner}
+	 */
+	public <T> ParallelScanner<T> scanParallel(List<?> boundaries, int pageSize, Class<T> classOfT) {
+		CouchDbUtil.assertTrue(boundaries != null, "boundaries may not be null");
+		final List<String> keys = new ArrayList<String>(boundaries.size());
+		for (Object boundary : boundaries) {
+			keys.add(getKeyAsJson(boundary));
+		}
+		return scanRanges(keys, pageSize, classOfT);
+	}
+	
+	private <T> ParallelScanner<T> scanRanges(Collection<String> boundaries, int pageSize, Class<T> classOfT) {
+		assertNotEmpty(classOfT, "Class");
+		assertScan(pageSize);
+		final String uri = uriBuilder.build().toString();
+		final String noStart = removeParams(uri, "startkey", "startkey_docid");
+		final String noEnd = removeParams(uri, "endkey", "endkey_docid", "inclusive_end");
+		final String noRange = removeParams(noStart, "endkey", "endkey_docid", "inclusive_end");
+		final List<String> keys = new ArrayList<String>(boundaries);
+		final List<Supplier<ViewScanner<T>>> ranges = new ArrayList<Supplier<ViewScanner<T>>>(keys.size() + 1);
+		for (int i = 0; i <= keys.size(); i++) {
+			// the first and last ranges keep the start and end set on this view
+			final String start = i == 0 ? null : keys.get(i - 1);
+			final String end = i == keys.size() ? null : keys.get(i);
+			final StringBuilder range = new StringBuilder(start == null ? (end == null ? uri : noEnd) : (end == null ? noStart : noRange));
+			if(start != null) {
+				range.append(range.indexOf("?") < 0 ? '?' : '&').append("startkey=").append(URIBuilder.encode(start));
+			}
+			if(end != null) {
+				range.append(range.indexOf("?") < 0 ? '?' : '&').append("endkey=").append(URIBuilder.encode(end))
+					.append("&inclusive_end=false");
+			}
+			ranges.add(() -> scanner(range.toString(), pageSize, classOfT));
+		}
+		return new ParallelScanner<T>(ranges, pageSize);
+	}
+	
+	private void assertScan(int pageSize) {
+		CouchDbUtil.assertTrue(pageSize > 0, "pageSize must be positive");
+		CouchDbUtil.assertTrue(key == null && allDocsKeys == null && limit == null && skip == null, 
+				"key, keys, limit and skip are not supported by a scan");
+		if(dbc == null) {
+			throw new IllegalStateException("This view is executed asynchronously, see CouchDbAsyncClient#query");
+		}
+	}
+	
+	private <T> ViewScanner<T> scanner(String firstUri, int pageSize, Class<T> classOfT) {
+		final boolean docs = Boolean.TRUE.equals(includeDocs);
+		final Function<JeT, T> converter = row -> serializer.fromJson(docs ? serializer.getKeyFromObject(row, "doc") : row, classOfT);
+		final String nextUri = removeParams(firstUri, "startkey", "startkey_docid");
+		return new ViewScanner<>((lastKey, lastDocId) -> {
+			final StringBuilder uri = new StringBuilder(lastKey == null ? firstUri : nextUri);
+			uri.append(uri.indexOf("?") < 0 ? '?' : '&').append("limit=").append(pageSize);
+			if(lastKey != null) { // resume after the last row
+				uri.append("&skip=1&startkey=").append(URIBuilder.encode(lastKey));
+				if(lastDocId != null) {
+					uri.append("&startkey_docid=").append(URIBuilder.encode(lastDocId));
+				}
+			}
+			return scanPage(URI.create(uri.toString()), pageSize, converter);
+		});
+	}
+	
+	/**
+	 * @return The distinct keys found at even intervals of the rows, counted from the <tt>total_rows</tt> 
+	 * and <tt>offset</tt> of the view.
+	 */
+	private Set<String> sampleBoundaries(String uri, int partitions) {
+		final String separator = uri.indexOf('?') < 0 ? "?" : "&";
+		final long rows;
+		try (JsonStreamIterator<JeT, JeT> it = queryForRows(URI.create(uri + separator + "limit=0"), null, row -> row)) {
+			it.hasNext();
+			final JeT total = it.getField("total_rows");
+			final JeT offset = it.getField("offset");
+			if(total == null || offset == null) {
+				throw new CouchDbException("Can not sample the keys of a reduced view, set reduce(false) or the boundaries");
+			}
+			rows = serializer.fromJson(total, Long.class) - serializer.fromJson(offset, Long.class);
+		}
+		final Set<String> boundaries = new LinkedHashSet<String>();
+		for (int i = 1; i < partitions; i++) {
+			final long skip = rows * i / partitions;
+			try (JsonStreamIterator<JeT, JeT> it = queryForRows(URI.create(uri + separator + "limit=1&skip=" + skip), null, row -> row)) {
+				if(!it.hasNext()) { // the end key is before the end of the view
+					break;
+				}
+				boundaries.add(serializer.toJson(serializer.getKeyFromObject(it.next(), "key")));
+			}
+		}
+		return boundaries;
+	}
+	
+	/**
+	 * Reads a page of rows. The page is read as text first, to keep the last key exactly as returned.
+	 */
+	private <T> ViewScanner.Chunk<T> scanPage(URI uri, int pageSize, Function<JeT, T> converter) {
+		final HttpGet get = new HttpGet(uri);
+		get.addHeader(CouchDbClientBase.ACCEPT_JSON);
+		final String page;
+		final InputStream in = dbc.get(get);
+		try {
+			page = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new CouchDbException("Error reading the view page. ", e);
+		} finally {
+			close(in);
+		}
+		final List<T> rows = new ArrayList<T>(pageSize);
+		JeT last = null;
+		try (JsonArrayStream<JeT> it = serializer.streamArray(new StringReader(page), "rows")) {
+			while (it.hasNext()) {
+				last = it.next();
+				rows.add(converter.apply(last));
+			}
+		}
+		if(last == null) {
+			return new ViewScanner.Chunk<T>(rows, null, null, false);
+		}
+		final String lastKey = RawJson.lastElementField(page, "rows", "key");
+		final JeT id = serializer.getKeyFromObject(last, "id"); // none for reduced rows
+		final String lastDocId = id == null ? null : serializer.fromJson(id, String.class);
+		return new ViewScanner.Chunk<T>(rows, lastKey, lastDocId, rows.size() == pageSize);
+	}
+	
+	private static String removeParams(String uri, String... names) {
+		final int q = uri.indexOf('?');
+		if(q < 0) {
+			return uri;
+		}
+		final StringBuilder result = new StringBuilder(uri.length()).append(uri, 0, q);
+		char separator = '?';
+		params: for (String param : uri.substring(q + 1).split("&")) {
+			for (String name : names) {
+				if(param.startsWith(name + "=")) {
+					continue params;
+				}
+			}
+			result.append(separator).append(param);
+			separator = '&';
+		}
+		return result.toString();
+	}
+	
 	/**
 	 * Queries a view.
 	 * @param <T> Object type T
@@ -137,7 +420,7 @@ public class View<JoT, JeT> {
 	public <T> List<T> query(Class<T> classOfT) {
 		InputStream instream = null;
 		try {  
-			Reader reader = new InputStreamReader(instream = queryForStream(), StandardCharsets.UTF_8);
+			Reader reader = new InputStreamReader(instream = queryForResult(), StandardCharsets.UTF_8);
 			List<T> list = new ArrayList<T>();
 			serializer.extractRowToList(reader, classOfT, list, this.includeDocs);
 			return list;
@@ -159,7 +442,7 @@ public class View<JoT, JeT> {
 	public <K, V, T> ViewResult<K, V, T> queryView(Class<K> classOfK, Class<V> classOfV, Class<T> classOfT) {
 		InputStream instream = null;
 		try {  
-			Reader reader = new InputStreamReader(instream = queryForStream(), StandardCharsets.UTF_8);
+			Reader reader = new InputStreamReader(instream = queryForResult(), StandardCharsets.UTF_8);
 			return serializer.handleViewResult(reader, includeDocs, classOfK, classOfV, classOfT);
 		} finally {
 			close(instream);
@@ -200,7 +483,7 @@ public class View<JoT, JeT> {
 	private <V> V queryValue(Class<V> classOfV) {
 		InputStream instream = null;
 		try {  
-			Reader reader = new InputStreamReader(instream = queryForStream(), StandardCharsets.UTF_8);
+			Reader reader = new InputStreamReader(instream = queryForResult(), StandardCharsets.UTF_8);
 			return serializer.getQueryValue(reader, classOfV);
 		} finally {
 			close(instream);
@@ -446,7 +729,7 @@ public class View<JoT, JeT> {
 	 * @return {@link View}
 	 */
 	public View descending(Boolean descending) {
-		this.descending = Boolean.valueOf(dbc.getSerializer().toJson(descending));
+		this.descending = Boolean.valueOf(serializer.toJson(descending));
 		uriBuilder.query("descending", this.descending);
 		return this;
 	}
@@ -534,6 +817,27 @@ public class View<JoT, JeT> {
 		return this;
 	}
 	
+	/**
+	 * @return The view request URI. Internal use.
+	 */
+	URI getUri() {
+		return uriBuilder.build();
+	}
+	
+	/**
+	 * @return The <tt>keys</tt> request body, or {@code null} for a GET request. Internal use.
+	 */
+	String getKeysJson() {
+		return allDocsKeys;
+	}
+	
+	/**
+	 * @return Whether documents are included in the result. Internal use.
+	 */
+	Boolean getIncludeDocs() {
+		return includeDocs;
+	}
+	
 	private String getKeyAsJson(Object... key) {
 		return (key.length == 1) ? serializer.toJson(key[0]) : serializer.toJson(key); // single or complex key
 	}
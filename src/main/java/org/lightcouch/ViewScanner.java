@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Walks a whole view, or <tt>_all_docs</tt>, page by page using keyset pagination.
+ * <p>
+ * Each page starts after the last row of the previous one, with <tt>startkey</tt>, <tt>startkey_docid</tt> and
+ * <tt>skip=1</tt>, so the cost of a page does not grow with its position in the view as with {@link View#queryPage}.
+ * The keys are carried as the raw JSON returned by CouchDB, complex and numeric keys round-trip exactly.
+ * <p>
+ * While the rows of a page are consumed, the next page is fetched in the background.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * try (ViewScanner&lt;Foo&gt; foos = dbClient.view("example/foo").includeDocs(true).scan(500, Foo.class)) {
+ *     while (foos.hasNext()) {
+ *         Foo foo = foos.next();
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <T> The type of the rows, or of the documents if <tt>include_docs</tt> is set.
+ * @see View#scan(int, Class)
+ * @since 0.3.3
+ */
+public class ViewScanner<T> implements CloseableIterator<T> {
+
+    private final BiFunction<String, String, Chunk<T>> pageReader;
+    private final ExecutorService prefetcher;
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private Future<Chunk<T>> next;
+    private boolean started;
+    private boolean closed;
+    private long pages;
+
+    /**
+     * @param pageReader Reads the page starting after the given key and document id, or the first page for a
+     *            {@code null} key.
+     */
+    ViewScanner(BiFunction<String, String, Chunk<T>> pageReader) {
+        this.pageReader = pageReader;
+        this.prefetcher = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "lightcouch-view-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!started) {
+            started = true;
+            next = prefetcher.submit(() -> pageReader.apply(null, null));
+        }
+        while (!current.hasNext()) {
+            if (next == null) {
+                close();
+                return false;
+            }
+            final Chunk<T> page = await(next);
+            pages++;
+            next = page.hasMore ? prefetcher.submit(() -> pageReader.apply(page.lastKey, page.lastDocId)) : null;
+            current = page.rows.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * @return The number of pages read so far.
+     */
+    public long getPages() {
+        return pages;
+    }
+
+    /**
+     * Stops the scan, discarding a page being prefetched.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            current = Collections.emptyIterator();
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+            prefetcher.shutdown();
+        }
+    }
+
+    private Chunk<T> await(Future<Chunk<T>> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CouchDbException(e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CouchDbException(e.getCause());
+        }
+    }
+
+    /**
+     * A page of rows, with the raw JSON key and the document id of its last row.
+     */
+    static class Chunk<T> {
+        final List<T> rows;
+        final String lastKey;
+        final String lastDocId;
+        final boolean hasMore;
+
+        Chunk(List<T> rows, String lastKey, String lastDocId, boolean hasMore) {
+            this.rows = rows;
+            this.lastKey = lastKey;
+            this.lastDocId = lastDocId;
+            this.hasMore = hasMore;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch;
+
+import org.lightcouch.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.lightcouch.CouchDbUtil.assertNotEmpty;
+import static org.lightcouch.CouchDbUtil.assertNull;
+
+/**
+ * Coalesces single document writes issued from many threads into <tt>_bulk_docs</tt> requests.
+ * <p>
+ * Writes are serialized when queued and sent in a <tt>_bulk_docs</tt> request as soon as <tt>maxBatchSize</tt>
+ * documents are pending, or <tt>maxDelay</tt> milliseconds after the first pending write. Each caller gets its own
+ * outcome through the returned future: the document {@link Response}, a {@link DocumentConflictException} or a
+ * {@link CouchDbException} for any other per document error.
+ * <p>
+ * Batches are written one at a time, in submission order.
+ * <h3>Usage Example:</h3>
+ *
+ * <pre>
+ * WriteBatcher batcher = dbClient.writeBatcher(100, 10);
+ * Response response = batcher.save(foo).join();
+ * batcher.update(bar).whenComplete((resp, error) -&gt; ...);
+ * // at shutdown, writes pending writes
+ * batcher.close();
+ * </pre>
+ *
+ * @see CouchDbClientBase#writeBatcher(int, long)
+ * @since 0.3.3
+ */
+public class WriteBatcher<JoT, JeT> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBatcher.class);
+
+    private final CouchDbClientBase<JoT, JeT> dbc;
+    private final Serializer<JoT, JeT> serializer;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final ScheduledExecutorService writer;
+
+    private final Object lock = new Object();
+    private List<Write> pending = new ArrayList<>();
+    private ScheduledFuture<?> timer;
+    private boolean closed;
+
+    WriteBatcher(CouchDbClientBase<JoT, JeT> dbc, int maxBatchSize, long maxDelay) {
+        CouchDbUtil.assertTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+        CouchDbUtil.assertTrue(maxDelay >= 0, "maxDelay must not be negative");
+        this.dbc = dbc;
+        this.serializer = dbc.getSerializer();
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "lightcouch-write-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a new document to be saved. A document without an <code>_id</code> gets one from the
+     * {@link IdGenerator} of the client, as with {@link CouchDbClientBase#save(Object)}.
+     *
+     * @param object The object to save, without a <code>_rev</code>.
+     * @return A future completing with the {@link Response} of the document.
+     */
+    public CompletableFuture<Response> save(Object object) {
+        assertNotEmpty(object, "object");
+        final DocumentAccessor.Keys keys = DocumentAccessor.read(serializer, object);
+        assertNull(keys.rev, "rev");
+        final String json = serializer.toJson(keys.json);
+        return enqueue(keys.id == null ? withId(json, dbc.getIdGenerator().nextId()) : json);
+    }
+
+    /**
+     * Queues an update of an existing document.
+     *
+     * @param object The object to update, with its <code>_id</code> and <code>_rev</code>.
+     * @return A future completing with the {@link Response} of the document, or with a
+     *         {@link DocumentConflictException} if the revision is not the latest.
+     */
+    public CompletableFuture<Response> update(Object object) {
+        assertNotEmpty(object, "object");
+        final DocumentAccessor.Keys keys = DocumentAccessor.read(serializer, object);
+        assertNotEmpty(keys.id, "id");
+        assertNotEmpty(keys.rev, "rev");
+        return enqueue(serializer.toJson(keys.json));
+    }
+
+    /**
+     * Adds an <code>_id</code> field first in a serialized document without one.
+     */
+    private String withId(String json, String id) {
+        final int start = json.indexOf('{') + 1;
+        int next = start;
+        while (next < json.length() && Character.isWhitespace(json.charAt(next))) {
+            next++;
+        }
+        final String field = "\"_id\":" + serializer.toJson(id);
+        return json.substring(0, start) + field + (json.charAt(next) == '}' ? "" : ",") + json.substring(start);
+    }
+
+    /**
+     * Writes the pending documents now and waits for the write to complete.
+     */
+    public void flush() {
+        final List<Write> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        try {
+            writer.submit(() -> write(batch)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new CouchDbException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the pending documents, then stops the batcher. Further writes are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush();
+        writer.shutdown();
+    }
+
+    private CompletableFuture<Response> enqueue(String json) {
+        final Write write = new Write(json);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("WriteBatcher is closed");
+            }
+            pending.add(write);
+            if (pending.size() >= maxBatchSize) {
+                final List<Write> batch = takePending();
+                writer.execute(() -> write(batch));
+            } else if (timer == null) {
+                timer = writer.schedule(this::writePending, maxDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+        return write.future;
+    }
+
+    private void writePending() {
+        final List<Write> batch;
+        synchronized (lock) {
+            timer = null;
+            batch = takePending();
+        }
+        write(batch);
+    }
+
+    /**
+     * Must be called holding the lock.
+     */
+    private List<Write> takePending() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        final List<Write> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void write(List<Write> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final List<String> docs = new ArrayList<>(batch.size());
+        for (Write write : batch) {
+            docs.add(write.json);
+        }
+        try {
+            final List<Response> responses = dbc.bulkDocs(JsonEntity.bulkDocs(docs, true));
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i).future, i < responses.size() ? responses.get(i) : null);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error writing a batch of " + batch.size() + " documents", e);
+            for (Write write : batch) {
+                write.future.completeExceptionally(e); // no-op for the writes already completed
+            }
+        }
+    }
+
+    private static void complete(CompletableFuture<Response> future, Response response) {
+        if (response == null) {
+            future.completeExceptionally(new CouchDbException("No bulk response for the document"));
+        } else if (response.getError() == null) {
+            future.complete(response);
+        } else if ("conflict".equals(response.getError())) {
+            future.completeExceptionally(new DocumentConflictException(response.getReason()));
+        } else {
+            future.completeExceptionally(new CouchDbException(response.getError() + ": " + response.getReason()));
+        }
+    }
+
+    private static class Write {
+        final String json;
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+
+        Write(String json) {
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch.serializer;
+
+import org.lightcouch.CouchDbException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link JsonArrayStream} reading the whole JSON object first, the default of
+ * {@link Serializer#streamArray(Reader, String)} for serializers without an incremental reader.
+ */
+class BufferedArrayStream<JeT> implements JsonArrayStream<JeT> {
+
+    private final Serializer<?, JeT> serializer;
+    private final JeT object;
+    private final Iterator<JeT> elements;
+
+    BufferedArrayStream(Serializer<?, JeT> serializer, Reader reader, String arrayField) {
+        this.serializer = serializer;
+        try {
+            this.object = serializer.parseJson(read(reader));
+        } finally {
+            close(reader);
+        }
+        final List<JeT> array = serializer.getAsList(serializer.getKeyFromObject(object, arrayField));
+        this.elements = array.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return elements.hasNext();
+    }
+
+    @Override
+    public JeT next() {
+        return elements.next();
+    }
+
+    @Override
+    public JeT getField(String name) {
+        return serializer.getKeyFromObject(object, name);
+    }
+
+    @Override
+    public void close() {
+        // the input was read and closed up front
+    }
+
+    private static String read(Reader reader) {
+        final StringBuilder json = new StringBuilder();
+        final char[] buffer = new char[8192];
+        try {
+            for (int n; (n = reader.read(buffer)) != -1; ) {
+                json.append(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            throw new CouchDbException("Error reading the JSON stream. ", e);
+        }
+        return json.toString();
+    }
+
+    private static void close(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // SILENT Close
+        }
+    }
+}
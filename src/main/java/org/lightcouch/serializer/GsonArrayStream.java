@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch.serializer;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.lightcouch.CouchDbException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link JsonArrayStream} on a Gson {@link JsonReader}.
+ */
+class GsonArrayStream implements JsonArrayStream<JsonElement> {
+
+  private final JsonReader reader;
+  private final String arrayField;
+  private final Map<String, JsonElement> fields = new HashMap<>();
+  private boolean started;
+  private boolean done;
+
+  GsonArrayStream(Reader reader, String arrayField) {
+    this.reader = new JsonReader(reader);
+    this.arrayField = arrayField;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (done) {
+      return false;
+    }
+    try {
+      if (!started) {
+        started = true;
+        reader.beginObject();
+        if (!readFieldsUntilArray()) {
+          return false;
+        }
+      }
+      if (reader.hasNext()) {
+        return true;
+      }
+      reader.endArray();
+      readFieldsUntilArray(); // the fields following the array
+      return false;
+    } catch (IOException | RuntimeException e) {
+      done = true;
+      throw new CouchDbException("Error reading the JSON stream. ", e);
+    }
+  }
+
+  @Override
+  public JsonElement next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return JsonParser.parseReader(reader);
+  }
+
+  @Override
+  public JsonElement getField(String name) {
+    return fields.get(name);
+  }
+
+  @Override
+  public void close() {
+    done = true;
+    try {
+      reader.close();
+    } catch (IOException e) {
+      // SILENT Close
+    }
+  }
+
+  /**
+   * @return true If positioned inside the array, false if the end of the object was reached.
+   */
+  private boolean readFieldsUntilArray() throws IOException {
+    while (reader.hasNext()) {
+      final String name = reader.nextName();
+      if (name.equals(arrayField) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+        reader.beginArray();
+        return true;
+      }
+      fields.put(name, JsonParser.parseReader(reader));
+    }
+    reader.endObject();
+    done = true;
+    return false;
+  }
+}
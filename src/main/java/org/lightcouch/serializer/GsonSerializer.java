@@ -18,8 +18,10 @@ import org.lightcouch.NoDocumentException;
 import org.lightcouch.ViewResult;
 
 import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +42,11 @@ public class GsonSerializer implements Serializer<JsonObject, JsonElement> {
     return gson.toJson(object);
   }
 
+  @Override
+  public void toJson(Object object, Writer writer) {
+    gson.toJson(object, writer);
+  }
+
   @Override
   public JsonElement parseJson(String json) {
     return JsonParser.parseString(json);
@@ -130,6 +137,11 @@ public class GsonSerializer implements Serializer<JsonObject, JsonElement> {
     return getAsString(JsonParser.parseReader(reader).getAsJsonObject(), "version");
   }
 
+  @Override
+  public List<JsonElement> getAsList(JsonElement jsonArray) {
+    return (jsonArray == null || !jsonArray.isJsonArray()) ? Collections.emptyList() : jsonArray.getAsJsonArray().asList();
+  }
+
   @Override
   public <T> void extractDocsToList(Reader reader, Class<T> listType, List<T> list) {
     JsonArray jsonArray = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonArray("docs");
@@ -164,6 +176,11 @@ public class GsonSerializer implements Serializer<JsonObject, JsonElement> {
     return JsonToObject(array.get(0), "value", type);
   }
 
+  @Override
+  public JsonArrayStream<JsonElement> streamArray(Reader reader, String arrayField) {
+    return new GsonArrayStream(reader, arrayField);
+  }
+
   @Override
   public <K, V, T> ViewResult<K, V, T> handleViewResult(Reader reader,
                                                         Boolean includeDocs,
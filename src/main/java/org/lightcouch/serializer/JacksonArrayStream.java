@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch.serializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.lightcouch.CouchDbException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link JsonArrayStream} on a Jackson {@link JsonParser}.
+ */
+class JacksonArrayStream implements JsonArrayStream<JsonNode> {
+
+  private final ObjectMapper mapper;
+  private final JsonParser parser;
+  private final String arrayField;
+  private final Map<String, JsonNode> fields = new HashMap<>();
+  private boolean started;
+  private boolean done;
+  private JsonNode next;
+
+  JacksonArrayStream(ObjectMapper mapper, Reader reader, String arrayField) {
+    this.mapper = mapper;
+    this.arrayField = arrayField;
+    try {
+      this.parser = mapper.getFactory().createParser(reader);
+    } catch (IOException e) {
+      throw new CouchDbException("Error reading the JSON stream. ", e);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) {
+      return true;
+    }
+    if (done) {
+      return false;
+    }
+    try {
+      if (!started) {
+        started = true;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          throw new IOException("Expected a JSON object");
+        }
+        if (!readFieldsUntilArray()) {
+          return false;
+        }
+      }
+      if (parser.nextToken() == JsonToken.END_ARRAY) {
+        readFieldsUntilArray(); // the fields following the array
+        return false;
+      }
+      final JsonNode element = mapper.readTree(parser);
+      next = element != null ? element : mapper.nullNode();
+      return true;
+    } catch (IOException | RuntimeException e) {
+      done = true;
+      throw new CouchDbException("Error reading the JSON stream. ", e);
+    }
+  }
+
+  @Override
+  public JsonNode next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final JsonNode element = next;
+    next = null;
+    return element;
+  }
+
+  @Override
+  public JsonNode getField(String name) {
+    return fields.get(name);
+  }
+
+  @Override
+  public void close() {
+    done = true;
+    next = null;
+    try {
+      parser.close();
+    } catch (IOException e) {
+      // SILENT Close
+    }
+  }
+
+  /**
+   * @return true If positioned at the start of the array, false if the end of the object was reached.
+   */
+  private boolean readFieldsUntilArray() throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      final JsonToken value = parser.nextToken();
+      if (name.equals(arrayField) && value == JsonToken.START_ARRAY) {
+        return true;
+      }
+      fields.put(name, mapper.readTree(parser));
+    }
+    done = true;
+    return false;
+  }
+}
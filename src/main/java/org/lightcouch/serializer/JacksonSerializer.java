@@ -1,8 +1,8 @@
 package org.lightcouch.serializer;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +12,8 @@ import org.lightcouch.ViewResult;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +37,15 @@ public class JacksonSerializer implements Serializer<ObjectNode, JsonNode> {
     }
   }
 
+  @Override
+  public void toJson(Object object, Writer writer) {
+    try {
+      mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(writer, object);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public JsonNode parseJson(String json) {
     try {
@@ -95,7 +106,7 @@ public class JacksonSerializer implements Serializer<ObjectNode, JsonNode> {
   @Override
   public <T> List<T> deserializeAsList(Reader reader, Class<T> listType) {
     try {
-      return mapper.readValue(reader, new TypeReference<List<T>>() {});
+      return mapper.readValue(reader, mapper.getTypeFactory().constructCollectionType(List.class, listType));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -191,6 +202,15 @@ public class JacksonSerializer implements Serializer<ObjectNode, JsonNode> {
     }
   }
 
+  @Override
+  public List<JsonNode> getAsList(JsonNode jsonArray) {
+    final List<JsonNode> list = new ArrayList<>();
+    if (jsonArray != null && jsonArray.isArray()) {
+      jsonArray.forEach(list::add);
+    }
+    return list;
+  }
+
   @Override
   public <T> void extractDocsToList(Reader reader, Class<T> listType, List<T> list) {
     try {
@@ -242,6 +262,11 @@ public class JacksonSerializer implements Serializer<ObjectNode, JsonNode> {
     }
   }
 
+  @Override
+  public JsonArrayStream<JsonNode> streamArray(Reader reader, String arrayField) {
+    return new JacksonArrayStream(mapper, reader, arrayField);
+  }
+
   @Override
   public <K, V, T> ViewResult<K, V, T> handleViewResult(Reader reader, Boolean includeDocs, Class<K> classOfK, Class<V> classOfV, Class<T> classOfT) {
     try {
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package org.lightcouch.serializer;
+
+import org.lightcouch.CloseableIterator;
+
+/**
+ * Reads the elements of an array field of a JSON object one at a time, e.g. the <tt>rows</tt> of a view result,
+ * without building the whole document in memory.
+ * <p>
+ * Each element is returned as a JSON element tree. The other fields of the object are kept and available from
+ * {@link #getField(String)}: the ones preceding the array as soon as the first element is read, the ones following
+ * it once the iteration is over.
+ *
+ * @param <JeT> The JSON element type of the serializer.
+ * @see Serializer#streamArray(java.io.Reader, String)
+ * @since 0.3.3
+ */
+public interface JsonArrayStream<JeT> extends CloseableIterator<JeT> {
+
+    /**
+     * @param name The field name.
+     * @return The value of a field of the object read so far, other than the streamed array; or {@code null}.
+     */
+    JeT getField(String name);
+}
@@ -2,7 +2,12 @@ package org.lightcouch.serializer;
 
 import org.lightcouch.ViewResult;
 
+import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +15,19 @@ public interface Serializer<JoT, JeT> {
 
   String toJson(Object object);
 
+  /**
+   * Serializes an object to a writer as it goes, without building the whole JSON string. The writer is left open.
+   * <p>
+   * The default writes the string of {@link #toJson(Object)}; implementations should override it to stream.
+   */
+  default void toJson(Object object, Writer writer) {
+    try {
+      writer.write(toJson(object));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   JeT parseJson(String json);
 
   JoT parseJsonObject(String json);
@@ -46,6 +64,27 @@ public interface Serializer<JoT, JeT> {
 
   String getKeyFromObject(Reader reader, String key);
 
+  /**
+   * The default converts the array through its JSON text and generic Java values, numbers may therefore change type
+   * (e.g. integers read back as decimals with Gson); implementations should override it to read the tree.
+   *
+   * @return The elements of a JSON array, or an empty list if the element is not an array.
+   */
+  default List<JeT> getAsList(JeT jsonArray) {
+    if (jsonArray == null) {
+      return Collections.emptyList();
+    }
+    final String json = toJson(jsonArray).trim();
+    if (!json.startsWith("[")) {
+      return Collections.emptyList();
+    }
+    final List<JeT> elements = new ArrayList<>();
+    for (Object element : fromJson(json, List.class)) {
+      elements.add(parseJson(toJson(element)));
+    }
+    return elements;
+  }
+
   <T> void extractDocsToList(Reader reader, Class<T> listType, List<T> list);
 
   <T> void extractRowToList(Reader reader, Class<T> listType, List<T> list, Boolean includeDocs);
@@ -57,4 +96,14 @@ public interface Serializer<JoT, JeT> {
                                                  Class<K> classOfK,
                                                  Class<V> classOfV,
                                                  Class<T> classOfT);
+
+  /**
+   * Streams the elements of the array field of a JSON object, reading the input incrementally.
+   * <p>
+   * The default reads the whole object before returning the elements; implementations should override it to read
+   * the input incrementally.
+   */
+  default JsonArrayStream<JeT> streamArray(Reader reader, String arrayField) {
+    return new BufferedArrayStream<>(this, reader, arrayField);
+  }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.auth.AuthCache;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
+import org.apache.hc.client5.http.impl.auth.BasicScheme;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.BasicHttpContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.lightcouch.serializer.GsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.lightcouch.URIBuilder.buildUri;
+
+/**
+ * Measures the work done to prepare a <tt>find()</tt> request before it is handed to the HTTP client: the document
+ * URI, the request with its headers and the execution context. The <tt>legacy</tt> benchmarks reproduce how the
+ * request was prepared before the hot path was reworked.
+ *
+ * <p> Run: <tt>$ mvn test-compile exec:java -Dexec.mainClass=org.lightcouch.RequestPathBenchmark
+ * -Dexec.classpathScope=test</tt> and compare the <tt>gc.alloc.rate.norm</tt> (bytes allocated per request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPathBenchmark {
+
+	private HttpServer server;
+	private CouchDbClient<?, ?> dbClient;
+	private HttpHost host;
+	private URI dbUri;
+	private String docId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		// answers the version check done by the client constructor
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			byte[] body = "{\"couchdb\":\"Welcome\",\"version\":\"3.3.2\"}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		CouchDbProperties properties = new CouchDbProperties("lightcouch-db-bench", false, "http", "127.0.0.1",
+				server.getAddress().getPort(), "admin", "admin");
+		dbClient = new CouchDbClient<>(properties, new GsonSerializer());
+		host = dbClient.host;
+		dbUri = dbClient.getDBUri();
+		docId = UUID.randomUUID().toString().replace("-", "");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		dbClient.shutdown();
+		server.stop(0);
+	}
+
+	@Benchmark
+	public URI documentUri() {
+		return buildUri(dbUri).pathEncoded(docId).build();
+	}
+
+	@Benchmark
+	public URI legacyDocumentUri() {
+		return legacyBuild(legacyEncode(docId));
+	}
+
+	@Benchmark
+	public Object findRequest() {
+		HttpGet get = new HttpGet(buildUri(dbUri).pathEncoded(docId).build());
+		get.addHeader(CouchDbClientBase.ACCEPT_JSON);
+		return new Object[] { get, dbClient.createContext() };
+	}
+
+	@Benchmark
+	public Object legacyFindRequest() {
+		HttpGet get = new HttpGet(legacyBuild(legacyEncode(docId)));
+		get.addHeader("Accept", "application/json");
+		return new Object[] { get, legacyContext() };
+	}
+
+	/** URIBuilder.buildUri(URI).pathEncoded(id).build() before the rework */
+	private URI legacyBuild(String encodedId) {
+		String path = dbUri.getPath() + encodedId;
+		try {
+			return new URI(String.format("%s://%s:%d%s%s", dbUri.getScheme(), dbUri.getHost(), dbUri.getPort(), path, ""));
+		} catch (URISyntaxException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private static String legacyEncode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/** CouchDbClient.createContext() before the rework */
+	private HttpContext legacyContext() {
+		HttpContext context = new BasicHttpContext();
+		AuthCache authCache = new BasicAuthCache();
+		BasicScheme auth = new BasicScheme();
+		auth.initPreemptive(new UsernamePasswordCredentials("admin", "admin".toCharArray()));
+		authCache.put(host, auth);
+		context.setAttribute(HttpClientContext.AUTH_CACHE, authCache);
+		return context;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(RequestPathBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -17,15 +17,29 @@
 package org.lightcouch.tests;
 
 
+import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.junit.Test;
+import org.lightcouch.BulkGetResult;
+import org.lightcouch.BulkWriter;
+import org.lightcouch.CouchDbException;
+import org.lightcouch.DocRef;
 import org.lightcouch.Response;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class BulkDocumentTest extends CouchDbTestBase {
 	
@@ -55,4 +69,111 @@ public class BulkDocumentTest extends CouchDbTestBase {
 		assertThat(docs.size(), is(2));
 	}
 
+	@Test
+	public void bulkWriterChunks() {
+		List<Foo> newDocs = new ArrayList<Foo>();
+		for (int i = 0; i < 1000; i++) {
+			newDocs.add(new Foo(UUID.randomUUID().toString()));
+		}
+		BulkWriter writer = dbClient.bulkWriter().parallelism(3).chunkSize(50, 200).maxBytes(4096);
+
+		List<Response> responses = writer.write(newDocs);
+
+		assertThat(responses.size(), is(1000));
+		for (int i = 0; i < 1000; i++) {
+			assertThat(responses.get(i).getId(), is(newDocs.get(i).get_id()));
+			assertNull(responses.get(i).getError());
+		}
+		// conflicts are reported per document
+		assertThat(writer.write(newDocs.subList(0, 2)).get(1).getError(), is("conflict"));
+	}
+
+	@Test
+	public void bulkWriterSplitsTooLargeChunks() {
+		List<Foo> newDocs = newDocs(200, "a");
+		String previous = setMaxRequestSize("65536");
+		try {
+			BulkWriter writer = dbClient.bulkWriter().parallelism(2).chunkSize(200, 200).maxBytes(1024 * 1024);
+
+			List<Response> responses = writer.write(newDocs);
+
+			assertThat(responses.size(), is(200));
+			for (int i = 0; i < 200; i++) {
+				assertThat(responses.get(i).getId(), is(newDocs.get(i).get_id()));
+				assertNull(responses.get(i).getError());
+			}
+			// the server limit was learned
+			assertTrue(writer.getMaxBytes() < 1024 * 1024);
+		} finally {
+			setMaxRequestSize(previous);
+		}
+	}
+
+	@Test
+	public void bulkWriterCountsUtf8Bytes() {
+		List<Foo> newDocs = newDocs(100, "\u00e9"); // two bytes per character
+		String previous = setMaxRequestSize("65536");
+		try {
+			BulkWriter writer = dbClient.bulkWriter().parallelism(2).chunkSize(500, 500).maxBytes(60000);
+
+			assertThat(writer.write(newDocs).size(), is(100));
+			// no chunk was rejected as too large
+			assertThat(writer.getMaxBytes(), is(60000L));
+		} finally {
+			setMaxRequestSize(previous);
+		}
+	}
+
+	@Test
+	public void bulkGetRevisions() {
+		Foo foo = new Foo(UUID.randomUUID().toString(), "first");
+		Response first = dbClient.save(foo);
+		foo.set_rev(first.getRev());
+		foo.setTitle("second");
+		Response second = dbClient.update(foo);
+		String missing = UUID.randomUUID().toString();
+
+		List<BulkGetResult<Foo>> results = dbClient.bulkGet(Arrays.asList(new DocRef(foo.get_id(), first.getRev()),
+				new DocRef(foo.get_id()), new DocRef(missing)), Foo.class).revs(true).query();
+
+		assertThat(results.size(), is(3));
+		assertThat(results.get(0).getDoc().getTitle(), is("first"));
+		assertThat(results.get(1).getRev(), is(second.getRev()));
+		assertThat(results.get(1).getDoc().getTitle(), is("second"));
+		assertTrue(results.get(0).isOk() && results.get(1).isOk());
+		assertThat(results.get(2).getId(), is(missing));
+		assertThat(results.get(2).getError(), is("not_found"));
+		assertNull(results.get(2).getDoc());
+	}
+
+	// Helper
+
+	private static List<Foo> newDocs(int count, String character) {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			content.append(character);
+		}
+		List<Foo> docs = new ArrayList<Foo>();
+		for (int i = 0; i < count; i++) {
+			Foo foo = new Foo(UUID.randomUUID().toString());
+			foo.setContent(content.toString());
+			docs.add(foo);
+		}
+		return docs;
+	}
+
+	/**
+	 * Sets the <tt>max_http_request_size</tt> of the server.
+	 * @return The previous value.
+	 */
+	private static String setMaxRequestSize(String size) {
+		HttpPut put = new HttpPut(dbClient.getBaseUri().resolve("_node/_local/_config/chttpd/max_http_request_size"));
+		put.setEntity(new StringEntity('"' + size + '"', ContentType.APPLICATION_JSON));
+		try (ClassicHttpResponse response = dbClient.executeRequest(put)) {
+			return dbClient.getSerializer().fromJson(EntityUtils.toString(response.getEntity()), String.class);
+		} catch (IOException | ParseException e) {
+			throw new CouchDbException(e);
+		}
+	}
+
 }
@@ -16,14 +16,22 @@ package org.lightcouch.tests;
 import org.junit.Assume;
 import org.junit.Test;
 import org.lightcouch.Changes;
+import org.lightcouch.ChangesMetrics;
 import org.lightcouch.ChangesResult;
 import org.lightcouch.ChangesResult.Row;
+import org.lightcouch.ChangesStream;
 import org.lightcouch.CouchDbInfo;
+import org.lightcouch.DocChange;
+import org.lightcouch.RawJson;
 import org.lightcouch.Response;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -54,6 +62,35 @@ public class ChangeNotificationsTest extends CouchDbTestBase {
         assertThat(rows.size(), is(1));
     }
 
+    @Test
+    public void changes_normalFeed_stream() {
+        dbClient.save(new Foo());
+        dbClient.save(new Foo());
+        dbClient.save(new Foo());
+
+        ChangesResult changes = dbClient.changes().getChanges();
+        List<String> ids = new ArrayList<>();
+        String since = null;
+        // catch up in pages of one change
+        while (true) {
+            Changes feed = dbClient.changes().limit(1);
+            if (since != null) {
+                feed.since(since);
+            }
+            try (ChangesStream rows = feed.getChangesStream()) {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                ids.add(rows.next().getId());
+                assertThat(rows.hasNext(), is(false));
+                since = rows.getLastSeq();
+                assertNotNull(since);
+            }
+        }
+
+        assertThat(ids.size(), is(changes.getResults().size()));
+    }
+
     @Test
     public void changes_normalFeed_seqInterval() {
         Assume.assumeTrue(isCouchDB2());
@@ -194,6 +231,80 @@ public class ChangeNotificationsTest extends CouchDbTestBase {
         }
     }
 
+    @Test
+    public void changes_continuousFeed_typedDocs() {
+        String since = dbClient.context().info().getUpdateSeq();
+        Changes changes = dbClient.changes().includeDocs(true).since(since).heartBeat(2000).continuousChanges();
+
+        Foo foo = new Foo();
+        foo.setTitle("typed");
+        Response response = dbClient.save(foo);
+
+        assertTrue(changes.hasNext());
+        DocChange<Foo> change = changes.next(Foo.class);
+        assertEquals(response.getId(), change.getId());
+        assertEquals(response.getRev(), change.getChanges().get(0).getRev());
+        assertEquals("typed", change.getDoc().getTitle());
+        changes.stop();
+    }
+
+    @Test
+    public void changes_continuousFeed_rawDocs() {
+        String since = dbClient.context().info().getUpdateSeq();
+        Changes changes = dbClient.changes().includeDocs(true).since(since).heartBeat(2000).continuousChanges();
+
+        Response response = dbClient.save(new Foo());
+
+        assertTrue(changes.hasNext());
+        DocChange<RawJson> change = changes.nextRaw();
+        assertEquals(response.getId(), change.getId());
+        assertTrue(change.getDoc().toString().contains(response.getRev()));
+        assertEquals(response.getId(), change.getDoc().as(Foo.class).get_id());
+        changes.stop();
+    }
+
+    @Test
+    public void changes_longPollFeed() throws Exception {
+        String since = dbClient.context().info().getUpdateSeq();
+        Response response = dbClient.save(new Foo());
+
+        try (ChangesStream rows = dbClient.changes().since(since).timeout(10000).longPollChanges()) {
+            assertTrue(rows.hasNext());
+            assertEquals(response.getId(), rows.next().getId());
+            assertThat(rows.hasNext(), is(false));
+            assertNotNull(rows.getLastSeq());
+        }
+    }
+
+    @Test
+    public void changes_eventSourceFeed() {
+        String since = dbClient.context().info().getUpdateSeq();
+        Changes changes = dbClient.changes().includeDocs(true).since(since).heartBeat(1000).eventSourceChanges();
+
+        Response response = dbClient.save(new Foo());
+
+        assertTrue(changes.hasNext());
+        DocChange<Foo> change = changes.next(Foo.class);
+        assertEquals(response.getId(), change.getId());
+        assertEquals(response.getId(), change.getDoc().get_id());
+        changes.stop();
+    }
+
+    @Test
+    public void changes_eventSourceFeed_heartbeats() throws InterruptedException {
+        String since = dbClient.context().info().getUpdateSeq();
+        ChangesMetrics metrics = new ChangesMetrics();
+        Changes changes = dbClient.changes().since(since).heartBeat(200).monitor(metrics).eventSourceChanges();
+
+        Thread.sleep(1500); // idle past a few heartbeats
+        Response response = dbClient.save(new Foo());
+
+        assertTrue(changes.hasNext());
+        assertEquals(response.getId(), changes.next().getId());
+        assertTrue(metrics.getHeartbeats() > 0);
+        changes.stop();
+    }
+
     @Test
     public void changes_continuousFeed_selector() {
 
@@ -221,4 +332,47 @@ public class ChangeNotificationsTest extends CouchDbTestBase {
             changes.stop();
         }
     }
+
+    @Test
+    public void changes_continuousFeed_publisher() throws Exception {
+        String since = dbClient.context().info().getUpdateSeq();
+        Response first = dbClient.save(new Foo());
+        Response second = dbClient.save(new Foo());
+
+        Flow.Publisher<ChangesResult.Row> publisher = dbClient.changes().since(since).heartBeat(1000)
+                .continuousChangesPublisher();
+        List<String> ids = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(2);
+        publisher.subscribe(new Flow.Subscriber<ChangesResult.Row>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ChangesResult.Row row) {
+                ids.add(row.getId());
+                received.countDown();
+                if (ids.size() == 2) {
+                    subscription.cancel();
+                } else {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        assertThat(ids, is(Arrays.asList(first.getId(), second.getId())));
+    }
 }
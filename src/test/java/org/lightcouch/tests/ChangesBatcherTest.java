@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Test;
+import org.lightcouch.ChangesBatcher;
+import org.lightcouch.CheckpointStore;
+import org.lightcouch.Response;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChangesBatcherTest extends CouchDbTestBase {
+
+	@Test
+	public void batchesWithLatestDocuments() throws Exception {
+		String since = dbClient.context().info().getUpdateSeq();
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < 30; i++) {
+			Response response = dbClient.save(new Foo(generateUUID()));
+			ids.add(response.getId());
+			if (i % 3 == 0) { // two changes for the same document
+				dbClient.update(dbClient.find(Foo.class, response.getId()));
+			}
+		}
+
+		Set<String> handled = ConcurrentHashMap.newKeySet();
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		ChangesBatcher<Foo> batcher = dbClient.changesBatcher(Foo.class, CheckpointStore.localDocument(dbClient, generateUUID()))
+				.since(since)
+				.configure(changes -> changes.heartBeat(1000))
+				.batch(10, 200)
+				.start(batch -> {
+					sizes.add(batch.getRows().size());
+					batch.getDocs().forEach(foo -> handled.add(foo.get_id()));
+				});
+		for (int i = 0; i < 100 && handled.size() < ids.size(); i++) {
+			Thread.sleep(100);
+		}
+		batcher.close();
+
+		assertThat(handled, is(ids));
+		for (int size : sizes) {
+			assertThat(size <= 10, is(true));
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void closeWithFailingHandler() throws Exception {
+		String since = dbClient.context().info().getUpdateSeq();
+		List<Foo> foos = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			foos.add(new Foo(generateUUID()));
+		}
+		dbClient.bulk(foos, true);
+
+		AtomicInteger attempts = new AtomicInteger();
+		ChangesBatcher<Foo> batcher = dbClient.changesBatcher(Foo.class, CheckpointStore.localDocument(dbClient, generateUUID()))
+				.since(since)
+				.batch(1, 0) // a queue of two rows, filled while the handler fails
+				.start(batch -> {
+					attempts.incrementAndGet();
+					throw new IllegalStateException("handler failure");
+				});
+		for (int i = 0; i < 100 && attempts.get() < 2; i++) {
+			Thread.sleep(100);
+		}
+		batcher.close();
+
+		assertThat(attempts.get() >= 2, is(true));
+	}
+
+	// Helper
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Test;
+import org.lightcouch.ChangesFollower;
+import org.lightcouch.ChangesMetrics;
+import org.lightcouch.CheckpointStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChangesFollowerTest extends CouchDbTestBase {
+
+	@Test
+	public void localDocumentCheckpoint() {
+		String name = generateUUID();
+		CheckpointStore store = CheckpointStore.localDocument(dbClient, name);
+		assertNull(store.load());
+		store.save("1-a");
+		store.save("2-a");
+		assertThat(CheckpointStore.localDocument(dbClient, name).load(), is("2-a"));
+		// saved meanwhile by another instance
+		CheckpointStore.localDocument(dbClient, name).save("3-a");
+		store.save("4-a");
+		assertThat(CheckpointStore.localDocument(dbClient, name).load(), is("4-a"));
+	}
+
+	@Test
+	public void resumeFromCheckpoint() throws Exception {
+		Path file = Files.createTempDirectory("lightcouch").resolve("checkpoint");
+		String first = dbClient.save(new Foo(generateUUID())).getId();
+
+		List<String> ids = new CopyOnWriteArrayList<>();
+		ChangesFollower<?, ?> follower = dbClient.changesFollower(CheckpointStore.file(file))
+				.configure(changes -> changes.heartBeat(1000))
+				.start(row -> ids.add(row.getId()));
+		await(ids, first);
+		follower.close();
+		assertNotNull(follower.getSince());
+		assertThat(CheckpointStore.file(file).load(), is(follower.getSince()));
+
+		String second = dbClient.save(new Foo(generateUUID())).getId();
+		List<String> resumed = new CopyOnWriteArrayList<>();
+		try (ChangesFollower<?, ?> restarted = dbClient.changesFollower(CheckpointStore.file(file))
+				.configure(changes -> changes.heartBeat(1000))
+				.start(row -> resumed.add(row.getId()))) {
+			await(resumed, second);
+		}
+		assertThat(resumed.contains(first), is(false));
+	}
+
+	@Test
+	public void metrics() throws Exception {
+		Path file = Files.createTempDirectory("lightcouch").resolve("checkpoint");
+		ChangesMetrics metrics = new ChangesMetrics();
+		List<String> ids = new CopyOnWriteArrayList<>();
+		try (ChangesFollower<?, ?> follower = dbClient.changesFollower(CheckpointStore.file(file))
+				.since(dbClient.context().info().getUpdateSeq())
+				.configure(changes -> changes.heartBeat(200).monitor(metrics))
+				.stallTimeout(5000)
+				.start(row -> ids.add(row.getId()))) {
+			String id = dbClient.save(new Foo(generateUUID())).getId();
+			await(ids, id);
+			Thread.sleep(500); // a heartbeat or two
+		}
+		assertThat(metrics.getRows(), is(1L));
+		assertTrue(metrics.getHeartbeats() > 0);
+		assertTrue(metrics.getBytes() > 0);
+		assertThat(metrics.getReconnects(), is(0L));
+		assertThat(metrics.getStalls(), is(0L));
+		assertThat(metrics.getLag(dbClient.context()), is(0L));
+	}
+
+	@Test
+	public void reconnectDelayAfterFeedEnd() throws Exception {
+		Path file = Files.createTempDirectory("lightcouch").resolve("checkpoint");
+		ChangesMetrics metrics = new ChangesMetrics();
+		try (ChangesFollower<?, ?> follower = dbClient.changesFollower(CheckpointStore.file(file))
+				.since(dbClient.context().info().getUpdateSeq())
+				.configure(changes -> changes.timeout(10).monitor(metrics)) // the feed ends at once
+				.backoff(500, 1000)
+				.start(row -> { })) {
+			Thread.sleep(1200);
+		}
+		assertTrue(metrics.getReconnects() <= 3);
+	}
+
+	// Helper
+
+	private static void await(List<String> ids, String id) throws InterruptedException {
+		for (int i = 0; i < 100 && !ids.contains(id); i++) {
+			Thread.sleep(100);
+		}
+		assertThat(ids.contains(id), is(true));
+	}
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Test;
+import org.lightcouch.ChangesHub;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ChangesHubTest extends CouchDbTestBase {
+
+	@Test
+	public void fanOut() throws Exception {
+		ChangesHub hub = dbClient.changesHub();
+		Set<String> all = ConcurrentHashMap.newKeySet();
+		Set<String> selected = ConcurrentHashMap.newKeySet();
+		String prefix = generateUUID();
+		ChangesHub.Subscription allSubscription = hub.subscribe(row -> all.add(row.getId()));
+		ChangesHub.Subscription selectedSubscription = hub.subscribe(row -> row.getId().startsWith(prefix),
+				row -> selected.add(row.getId()), 100, ChangesHub.Overflow.BLOCK);
+		assertThat(hub.getSubscriptionCount(), is(2));
+		Thread.sleep(500); // feed connected
+
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			String id = (i % 2 == 0 ? prefix : "") + generateUUID();
+			dbClient.save(new Foo(id));
+			ids.add(id);
+		}
+		for (int i = 0; i < 100 && !all.containsAll(ids); i++) {
+			Thread.sleep(100);
+		}
+		allSubscription.close();
+		selectedSubscription.close();
+
+		assertTrue(all.containsAll(ids));
+		assertThat(selected.size(), is(5));
+		for (String id : selected) {
+			assertTrue(id.startsWith(prefix));
+		}
+		assertThat(hub.getSubscriptionCount(), is(0));
+	}
+
+	@Test
+	public void slowListenerDropsRows() throws Exception {
+		ChangesHub hub = dbClient.changesHub();
+		CountDownLatch release = new CountDownLatch(1);
+		Set<String> fast = ConcurrentHashMap.newKeySet();
+		ChangesHub.Subscription slow = hub.subscribe(row -> true, row -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, 2, ChangesHub.Overflow.DROP_NEWEST);
+		ChangesHub.Subscription other = hub.subscribe(row -> fast.add(row.getId()));
+		Thread.sleep(500); // feed connected
+
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			ids.add(dbClient.save(new Foo(generateUUID())).getId());
+		}
+		for (int i = 0; i < 100 && !fast.containsAll(ids); i++) {
+			Thread.sleep(100);
+		}
+		release.countDown();
+		slow.close();
+		other.close();
+
+		assertTrue(fast.containsAll(ids));
+		assertTrue(slow.getDropped() > 0);
+	}
+
+	// Helper
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lightcouch.CouchDbClient;
+import org.lightcouch.CouchDbException;
+import org.lightcouch.CouchDbProperties;
+import org.lightcouch.Response;
+import org.lightcouch.serializer.JacksonSerializer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CookieAuthTest extends CouchDbTestBase {
+
+	private static CouchDbClient<ObjectNode, JsonNode> cookieClient;
+
+	@BeforeClass
+	public static void setUpCookieClient() {
+		cookieClient = new CouchDbClient<>(new CouchDbConfigTest().getProperties().setCookieAuth(true),
+				new JacksonSerializer());
+	}
+
+	@AfterClass
+	public static void tearDownCookieClient() {
+		cookieClient.shutdown();
+	}
+
+	@Test
+	public void saveAndFind() {
+		Response response = cookieClient.save(new Foo());
+		Foo foo = cookieClient.find(Foo.class, response.getId());
+		assertThat(foo.get_rev(), is(response.getRev()));
+		assertTrue(dbClient.contains(response.getId()));
+	}
+
+	@Test
+	public void reusesSessionAcrossRequests() {
+		for (int i = 0; i < 20; i++) {
+			Response response = cookieClient.save(new Foo());
+			assertTrue(cookieClient.contains(response.getId()));
+		}
+	}
+
+	@Test(expected = CouchDbException.class)
+	public void badCredentials() {
+		CouchDbProperties properties = new CouchDbConfigTest().getProperties().setCookieAuth(true)
+				.setPassword("not-the-password");
+		new CouchDbClient<>(properties, new JacksonSerializer());
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lightcouch.ChangesResult;
+import org.lightcouch.CouchDbAsyncClient;
+import org.lightcouch.DocumentConflictException;
+import org.lightcouch.LongPollScheduler;
+import org.lightcouch.NoDocumentException;
+import org.lightcouch.Response;
+import org.lightcouch.View;
+import org.lightcouch.serializer.JacksonSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CouchDbAsyncClientTest extends CouchDbTestBase {
+
+	private static CouchDbAsyncClient<ObjectNode, JsonNode> asyncClient;
+
+	@BeforeClass
+	public static void setUpAsyncClient() {
+		asyncClient = new CouchDbAsyncClient<>(new JacksonSerializer());
+	}
+
+	@AfterClass
+	public static void tearDownAsyncClient() {
+		asyncClient.shutdown();
+	}
+
+	@Test
+	public void saveAndFind() {
+		Response response = asyncClient.save(new Foo()).join();
+		Foo foo = asyncClient.find(Foo.class, response.getId()).join();
+		assertNotNull(foo);
+		assertTrue(asyncClient.contains(response.getId()).join());
+	}
+
+	@Test
+	public void findUnknown() {
+		try {
+			asyncClient.find(Foo.class, "unknown-async-doc").join();
+			fail();
+		} catch (CompletionException e) {
+			assertThat(e.getCause(), instanceOf(NoDocumentException.class));
+		}
+		assertFalse(asyncClient.contains("unknown-async-doc").join());
+	}
+
+	@Test
+	public void updateConflict() {
+		Response response = asyncClient.save(new Foo()).join();
+		Foo foo = asyncClient.find(Foo.class, response.getId()).join();
+		asyncClient.update(foo).join();
+		try {
+			asyncClient.update(foo).join();
+			fail();
+		} catch (CompletionException e) {
+			assertThat(e.getCause(), instanceOf(DocumentConflictException.class));
+		}
+	}
+
+	@Test
+	public void concurrentSaves() {
+		List<CompletableFuture<Response>> futures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			futures.add(asyncClient.save(new Foo()));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		for (CompletableFuture<Response> future : futures) {
+			assertNotNull(future.join().getRev());
+		}
+	}
+
+	@Test
+	public void bulkAndViewKeys() {
+		List<Response> responses = asyncClient.bulk(Arrays.asList(new Foo(), new Foo()), true).join();
+		assertThat(responses.size(), is(2));
+
+		List<String> keys = Arrays.asList(responses.get(0).getId(), responses.get(1).getId());
+		View<ObjectNode, JsonNode> view = asyncClient.view("_all_docs");
+		view.includeDocs(true).keys(keys);
+		List<Foo> docs = asyncClient.query(view, Foo.class).join();
+		assertThat(docs.size(), is(2));
+	}
+
+	@Test
+	public void longPollScheduler() throws Exception {
+		String dbName = dbClient.context().info().getDbName();
+		String since = dbClient.context().info().getUpdateSeq();
+		List<String> ids = new CopyOnWriteArrayList<>();
+		try (LongPollScheduler scheduler = asyncClient.longPollScheduler(2).timeout(1000)) {
+			LongPollScheduler.Watch watch = scheduler.watch(dbName, since, changes -> {
+				for (ChangesResult.Row row : changes.getResults()) {
+					ids.add(row.getId());
+				}
+			});
+			for (int i = 0; i < 3; i++) { // more watches than polls
+				scheduler.watch(dbName, "now", changes -> {
+				});
+			}
+			Response response = asyncClient.save(new Foo()).join();
+			for (int i = 0; i < 100 && !ids.contains(response.getId()); i++) {
+				Thread.sleep(100);
+			}
+			assertTrue(ids.contains(response.getId()));
+			assertTrue(scheduler.getInFlight() <= 2);
+			assertNotNull(watch.getSince());
+		}
+	}
+}
@@ -52,6 +52,9 @@ class CouchDbConfigTest {
 			dbProperties.setConnectionTTL(getPropertyAsInt("couchdb.http.connection.ttl",false));
 			dbProperties.setProxyHost(getProperty("couchdb.proxy.host", false));
 			dbProperties.setProxyPort(getPropertyAsInt("couchdb.proxy.port", false));
+			dbProperties.setHttp2(getPropertyAsBoolean("couchdb.http2", false));
+			dbProperties.setCookieAuth(getPropertyAsBoolean("couchdb.auth.cookie", false));
+			dbProperties.setSingleFlight(getPropertyAsBoolean("couchdb.singleflight", false));
 
 		} catch (Exception e) {
 			throw new IllegalStateException(e);
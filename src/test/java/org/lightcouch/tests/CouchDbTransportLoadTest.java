@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.lightcouch.CouchDbAsyncClient;
+import org.lightcouch.CouchDbProperties;
+import org.lightcouch.Response;
+import org.lightcouch.serializer.GsonSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compares the HTTP/1.1 connection pool with the HTTP/2 multiplexed transport of {@link CouchDbAsyncClient}.
+ *
+ * <p> CouchDB only speaks HTTP/1.1, point the test to an HTTP/2 capable front end (e.g. an haproxy or nginx TLS
+ * terminating proxy) with <tt>-Dcouchdb.protocol=https -Dcouchdb.port=6984</tt>.
+ *
+ * <p> Unignore test then run: <tt>$ mvn test -Dtest=org.lightcouch.tests.CouchDbTransportLoadTest</tt>
+ */
+@Ignore
+public class CouchDbTransportLoadTest {
+
+	private static final int CONCURRENT_REQUESTS = 2000;
+	private static final int ROUNDS              = 5;
+
+	/** HTTP/1.1 client max connections */
+	private static final int MAX_CONNECTIONS = 20;
+
+	@Test
+	public void http1PoolLoadTest() {
+		runLoadTest("HTTP/1.1 pool", properties().setHttp2(false));
+	}
+
+	@Test
+	public void http2LoadTest() {
+		runLoadTest("HTTP/2", properties().setHttp2(true));
+	}
+
+	private void runLoadTest(String transport, CouchDbProperties properties) {
+		CouchDbAsyncClient<?, ?> client = new CouchDbAsyncClient<>(properties, new GsonSerializer());
+		try {
+			// warm up the connections
+			runRound(client);
+
+			long writes = 0;
+			long reads = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				long[] elapsed = runRound(client);
+				writes += elapsed[0];
+				reads += elapsed[1];
+			}
+			printResult(transport, writes / ROUNDS, reads / ROUNDS);
+		} finally {
+			client.shutdown();
+		}
+	}
+
+	/**
+	 * @return elapsed ms of the concurrent writes and the concurrent reads.
+	 */
+	private long[] runRound(CouchDbAsyncClient<?, ?> client) {
+		long start = System.currentTimeMillis();
+		List<CompletableFuture<Response>> saves = new ArrayList<>();
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			saves.add(client.save(new Foo()));
+		}
+		CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).join();
+		long writes = System.currentTimeMillis() - start;
+
+		start = System.currentTimeMillis();
+		List<CompletableFuture<Foo>> finds = new ArrayList<>();
+		for (CompletableFuture<Response> save : saves) {
+			finds.add(client.find(Foo.class, save.join().getId()));
+		}
+		CompletableFuture.allOf(finds.toArray(new CompletableFuture[0])).join();
+		long reads = System.currentTimeMillis() - start;
+		return new long[] { writes, reads };
+	}
+
+	private CouchDbProperties properties() {
+		return new CouchDbProperties()
+		  .setDbName("lightcouch-db-load")
+		  .setCreateDbIfNotExist(true)
+		  .setProtocol(System.getProperty("couchdb.protocol", "http"))
+		  .setHost(System.getProperty("couchdb.host", "127.0.0.1"))
+		  .setPort(Integer.getInteger("couchdb.port", 5984))
+		  .setUsername(System.getProperty("couchdb.username", "admin"))
+		  .setPassword(System.getProperty("couchdb.password", "admin"))
+		  .setMaxConnections(MAX_CONNECTIONS);
+	}
+
+	private void printResult(String transport, long writes, long reads) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("Load Test Completed: " + transport);
+		sb.append("\n* Concurrent requests: " + CONCURRENT_REQUESTS);
+		sb.append("\n* Average time to save all documents: " + writes + " ms.");
+		sb.append("\n* Average time to find all documents: " + reads + " ms.");
+		sb.append(String.format("\n* Throughput: %.0f writes/s, %.0f reads/s",
+				CONCURRENT_REQUESTS * 1000.0 / Math.max(writes, 1), CONCURRENT_REQUESTS * 1000.0 / Math.max(reads, 1)));
+		System.out.println(sb);
+	}
+}
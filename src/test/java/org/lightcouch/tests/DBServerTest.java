@@ -18,8 +18,12 @@ package org.lightcouch.tests;
 
 import org.junit.Test;
 import org.lightcouch.CouchDbInfo;
+import org.lightcouch.IdGenerator;
+import org.lightcouch.ServerIdGenerator;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
@@ -63,4 +67,33 @@ public class DBServerTest extends CouchDbTestBase {
   public void ensureFullCommit() {
     dbClient.context().ensureFullCommit();
   }
+
+  @Test
+  public void uuids() {
+    List<String> uuids = dbClient.context().uuids(10);
+    assertThat(uuids.size(), is(10));
+    assertThat(new HashSet<>(uuids).size(), is(10));
+  }
+
+  @Test
+  public void serverIdGenerator() {
+    ServerIdGenerator generator = dbClient.context().serverIdGenerator(10);
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 35; i++) {
+      ids.add(generator.nextId());
+    }
+    assertThat(ids.size(), is(35));
+  }
+
+  @Test
+  public void timeOrderedIds() {
+    IdGenerator generator = IdGenerator.timeOrdered();
+    String previous = generator.nextId();
+    for (int i = 0; i < 1000; i++) {
+      String id = generator.nextId();
+      assertThat(id.length(), is(32));
+      assertThat(id.compareTo(previous) > 0, is(true));
+      previous = id;
+    }
+  }
 }
@@ -16,14 +16,22 @@
  */
 package org.lightcouch.tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.junit.Assume;
 import org.junit.Test;
+import org.lightcouch.CheckpointStore;
 import org.lightcouch.DbUpdates;
+import org.lightcouch.DbUpdatesFollower;
 import org.lightcouch.Response;
 
 public class DbUpdatesTest extends CouchDbTestBase {
@@ -59,4 +67,31 @@ public class DbUpdatesTest extends CouchDbTestBase {
 		assertFalse(lastSeqNow.equals(lastSeq));
 		assertFalse(updates.getResults().isEmpty());
 	}
+
+	@Test
+	public void dbUpdatesFollowerDispatch() throws Exception {
+
+		Assume.assumeTrue(isCouchDB2());
+
+		String dbName = dbClient.context().info().getDbName();
+		Path file = Files.createTempDirectory("lightcouch").resolve("checkpoint");
+		Set<String> dispatched = ConcurrentHashMap.newKeySet();
+		DbUpdatesFollower follower = dbClient.context().dbUpdatesFollower(CheckpointStore.file(file))
+				.since(SINCE_PARAM_NOW)
+				.timeout(1000)
+				.filter(name -> name.equals(dbName))
+				.dispatch(2, dispatched::add);
+		Thread.sleep(500); // first request sent
+
+		dbClient.save(new Foo());
+		for (int i = 0; i < 100 && dispatched.isEmpty(); i++) {
+			Thread.sleep(100);
+		}
+		follower.close();
+
+		assertTrue(dispatched.contains(dbName));
+		assertEquals(1, dispatched.size());
+		assertNotNull(follower.getSince());
+		assertEquals(follower.getSince(), CheckpointStore.file(file).load());
+	}
 }
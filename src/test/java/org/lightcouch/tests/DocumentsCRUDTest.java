@@ -183,6 +183,22 @@ public class DocumentsCRUDTest extends CouchDbTestBase {
 		assertEquals(idWithSlash, responseUpdate.getId());
 	}
 
+	@Test
+	public void updateMapAndDocument() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("_id", generateUUID());
+		map.put("_rev", dbClient.save(map).getRev());
+		Response mapUpdate = dbClient.update(map);
+		assertTrue(mapUpdate.getRev().startsWith("2-"));
+
+		Bar bar = dbClient.find(Bar.class, dbClient.save(new Bar(generateUUID())).getId());
+		bar.setBar("updated");
+		bar.setRevision(dbClient.update(bar).getRev());
+		assertEquals("updated", dbClient.find(Bar.class, bar.getId()).getBar());
+		dbClient.remove(bar);
+		assertFalse(dbClient.contains(bar.getId()));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void updateWithoutIdAndRev_throwsIllegalArgumentException() {
 		dbClient.update(new Foo());
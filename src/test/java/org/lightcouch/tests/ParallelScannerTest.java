@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lightcouch.ParallelScanner;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ParallelScannerTest extends CouchDbTestBase {
+
+	@BeforeClass
+	public static void setUpParallelScanner() {
+		for (int i = 0; i < 100; i++) {
+			dbClient.save(new Foo(generateUUID()));
+		}
+	}
+
+	@Test
+	public void hexBoundaries() {
+		assertThat(ParallelScanner.hexBoundaries(1).isEmpty(), is(true));
+		assertThat(ParallelScanner.hexBoundaries(4), is(List.of("4000", "8000", "c000")));
+	}
+
+	@Test
+	public void forEachHexRanges() {
+		List<String> ids = allIds();
+		Set<String> scanned = ConcurrentHashMap.newKeySet();
+		ParallelScanner<Foo> scanner = dbClient.view("_all_docs")
+				.includeDocs(true)
+				.scanParallel(ParallelScanner.hexBoundaries(8), 10, Foo.class);
+		scanner.forEach(foo -> scanned.add(foo.get_id()));
+		assertThat(scanner.getPartitions(), is(8));
+		assertThat(scanned.size(), is(ids.size()));
+		assertThat(scanned.containsAll(ids), is(true));
+	}
+
+	@Test
+	public void singleHexRange() {
+		List<String> ids = allIds();
+		ParallelScanner<Foo> scanner = dbClient.view("_all_docs")
+				.includeDocs(true)
+				.scanParallel(ParallelScanner.hexBoundaries(1), 10, Foo.class);
+		try (Stream<Foo> foos = scanner.stream()) {
+			assertThat(foos.map(Foo::get_id).collect(Collectors.toList()), is(ids));
+		}
+		assertThat(scanner.getPartitions(), is(1));
+	}
+
+	@Test
+	public void streamSampledRanges() {
+		List<String> ids = allIds();
+		ParallelScanner<Foo> scanner = dbClient.view("_all_docs")
+				.includeDocs(true)
+				.scanParallel(4, 10, Foo.class);
+		try (Stream<Foo> foos = scanner.stream()) {
+			assertThat(foos.map(Foo::get_id).collect(Collectors.toList()), is(ids));
+		}
+	}
+
+	// Helper
+
+	private static List<String> allIds() {
+		List<Foo> foos = dbClient.view("_all_docs").includeDocs(true).query(Foo.class);
+		return foos.stream().map(Foo::get_id).collect(Collectors.toList());
+	}
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
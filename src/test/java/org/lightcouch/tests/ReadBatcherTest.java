@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Test;
+import org.lightcouch.NoDocumentException;
+import org.lightcouch.ReadBatcher;
+import org.lightcouch.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ReadBatcherTest extends CouchDbTestBase {
+
+	@Test
+	public void concurrentFinds() throws Exception {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ids.add(dbClient.save(new Foo(generateUUID())).getId());
+		}
+		ExecutorService threads = Executors.newFixedThreadPool(20);
+		try (ReadBatcher<Foo> batcher = dbClient.readBatcher(Foo.class, 50, 10)) {
+			List<Future<Foo>> futures = new ArrayList<>();
+			for (String id : ids) {
+				futures.add(threads.submit(() -> batcher.find(id)));
+			}
+			for (int i = 0; i < ids.size(); i++) {
+				assertThat(futures.get(i).get().get_id(), is(ids.get(i)));
+			}
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	@Test
+	public void missingAndDuplicateIds() {
+		Response response = dbClient.save(new Foo(generateUUID()));
+		Response deleted = dbClient.save(new Foo(generateUUID()));
+		dbClient.remove(deleted.getId(), deleted.getRev());
+		try (ReadBatcher<Foo> batcher = dbClient.readBatcher(Foo.class, 10, 50, 2)) {
+			CompletableFuture<Foo> first = batcher.load(response.getId());
+			CompletableFuture<Foo> second = batcher.load(response.getId());
+			CompletableFuture<Foo> missing = batcher.load(generateUUID());
+			CompletableFuture<Foo> removed = batcher.load(deleted.getId());
+			assertThat(first.join().get_rev(), is(response.getRev()));
+			assertThat(second.join().get_rev(), is(response.getRev()));
+			assertThat(first.join() != second.join(), is(true)); // each caller gets its own instance
+			assertNotFound(missing);
+			assertNotFound(removed);
+		}
+	}
+
+	@Test(expected = NoDocumentException.class)
+	public void findMissing() {
+		try (ReadBatcher<Foo> batcher = dbClient.readBatcher(Foo.class, 10, 5)) {
+			batcher.find(generateUUID());
+		}
+	}
+
+	// Helper
+
+	private static void assertNotFound(CompletableFuture<Foo> future) {
+		try {
+			future.join();
+			fail("NoDocumentException expected");
+		} catch (CompletionException e) {
+			assertThat(e.getCause(), instanceOf(NoDocumentException.class));
+		}
+	}
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
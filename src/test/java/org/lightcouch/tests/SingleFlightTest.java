@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lightcouch.CouchDbClient;
+import org.lightcouch.NoDocumentException;
+import org.lightcouch.Response;
+import org.lightcouch.SingleFlight;
+import org.lightcouch.serializer.JacksonSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SingleFlightTest extends CouchDbTestBase {
+
+	private static CouchDbClient<ObjectNode, JsonNode> singleFlightClient;
+
+	@BeforeClass
+	public static void setUpSingleFlightClient() {
+		singleFlightClient = new CouchDbClient<>(new CouchDbConfigTest().getProperties().setSingleFlight(true),
+				new JacksonSerializer());
+	}
+
+	@AfterClass
+	public static void tearDownSingleFlightClient() {
+		singleFlightClient.shutdown();
+	}
+
+	@Test
+	public void disabledByDefault() {
+		assertNull(dbClient.getSingleFlight());
+	}
+
+	@Test
+	public void concurrentFindsGetOwnResult() throws Exception {
+		Response response = dbClient.save(new Foo());
+		SingleFlight singleFlight = singleFlightClient.getSingleFlight();
+		long before = singleFlight.getHits() + singleFlight.getMisses();
+
+		int threads = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Foo>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return singleFlightClient.find(Foo.class, response.getId());
+				}));
+			}
+			start.countDown();
+			Map<Foo, Boolean> results = new IdentityHashMap<>();
+			for (Future<Foo> future : futures) {
+				Foo foo = future.get();
+				assertThat(foo.get_rev(), is(response.getRev()));
+				results.put(foo, true);
+			}
+			assertThat(results.size(), is(threads));
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(singleFlight.getHits() + singleFlight.getMisses() - before, is((long) threads));
+		assertTrue(singleFlight.getMisses() > 0);
+	}
+
+	@Test
+	public void streamsNotShared() throws IOException {
+		Response response = dbClient.save(new Foo());
+		SingleFlight singleFlight = singleFlightClient.getSingleFlight();
+		long before = singleFlight.getHits() + singleFlight.getMisses();
+		try (InputStream in = singleFlightClient.find(response.getId())) {
+			assertTrue(in.read() != -1);
+		}
+		try (InputStream in = singleFlightClient.view("_all_docs").queryForStream()) {
+			assertTrue(in.read() != -1);
+		}
+		assertThat(singleFlight.getHits() + singleFlight.getMisses(), is(before));
+	}
+
+	@Test(expected = NoDocumentException.class)
+	public void findMissing() {
+		singleFlightClient.find(Foo.class, "no-such-doc-id");
+	}
+}
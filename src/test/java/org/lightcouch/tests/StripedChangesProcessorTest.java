@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Test;
+import org.lightcouch.ChangesMetrics;
+import org.lightcouch.CheckpointStore;
+import org.lightcouch.Response;
+import org.lightcouch.StripedChangesProcessor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StripedChangesProcessorTest extends CouchDbTestBase {
+
+	@Test
+	public void perDocumentOrder() throws Exception {
+		String since = dbClient.context().info().getUpdateSeq();
+		Map<String, String> latest = new HashMap<>();
+		for (int i = 0; i < 20; i++) {
+			Response response = dbClient.save(new Foo(generateUUID()));
+			latest.put(response.getId(), response.getRev());
+		}
+		for (int i = 0; i < 3; i++) {
+			for (String id : latest.keySet()) {
+				latest.put(id, dbClient.update(dbClient.find(Foo.class, id)).getRev());
+			}
+		}
+
+		Map<String, List<String>> revs = new ConcurrentHashMap<>();
+		CheckpointStore checkpoints = CheckpointStore.localDocument(dbClient, generateUUID());
+		ChangesMetrics metrics = new ChangesMetrics();
+		StripedChangesProcessor processor = dbClient.changesProcessor(4, checkpoints)
+				.since(since)
+				.configure(changes -> changes.heartBeat(1000).monitor(metrics))
+				.start(row -> revs.computeIfAbsent(row.getId(), id -> new CopyOnWriteArrayList<>())
+						.add(row.getChanges().get(0).getRev()));
+		for (int i = 0; i < 100 && !revs.keySet().containsAll(latest.keySet()); i++) {
+			Thread.sleep(100);
+		}
+		processor.close();
+
+		for (Map.Entry<String, String> doc : latest.entrySet()) {
+			List<String> seen = revs.get(doc.getKey());
+			assertThat(seen.get(seen.size() - 1), is(doc.getValue()));
+		}
+		assertThat(checkpoints.load(), is(processor.getSafeSeq()));
+		assertThat(metrics.getProcessedSeq(), is(processor.getSafeSeq()));
+	}
+
+	@Test(timeout = 30000)
+	public void closeWithFailingHandler() throws Exception {
+		String since = dbClient.context().info().getUpdateSeq();
+		List<Foo> foos = new ArrayList<>();
+		for (int i = 0; i < 300; i++) { // more than a lane holds
+			foos.add(new Foo(generateUUID()));
+		}
+		dbClient.bulk(foos, true);
+
+		AtomicInteger attempts = new AtomicInteger();
+		StripedChangesProcessor processor = dbClient.changesProcessor(1, CheckpointStore.localDocument(dbClient, generateUUID()))
+				.since(since)
+				.start(row -> {
+					attempts.incrementAndGet();
+					throw new IllegalStateException("handler failure");
+				});
+		for (int i = 0; i < 100 && attempts.get() < 2; i++) {
+			Thread.sleep(100);
+		}
+		Thread.sleep(500); // the lane fills
+		processor.close();
+
+		assertThat(processor.getSafeSeq(), is((String) null));
+	}
+
+	// Helper
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
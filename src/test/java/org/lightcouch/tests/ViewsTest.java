@@ -16,9 +16,11 @@
 
 package org.lightcouch.tests;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.gson.JsonObject;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.lightcouch.CloseableIterator;
 import org.lightcouch.CouchDbClient;
 import org.lightcouch.CouchDbException;
 import org.lightcouch.Document;
@@ -26,12 +28,18 @@ import org.lightcouch.DocumentConflictException;
 import org.lightcouch.NoDocumentException;
 import org.lightcouch.Page;
 import org.lightcouch.ViewResult;
+import org.lightcouch.ViewScanner;
 import org.lightcouch.serializer.GsonSerializer;
+import org.lightcouch.serializer.JacksonSerializer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Vector;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
@@ -174,6 +182,86 @@ public class ViewsTest extends CouchDbTestBase {
 		assertThat(allDocs.size(), not(0));
 	}
 	
+	@Test
+	public void queryForIterator() {
+		List<Foo> foos = dbClient.view("example/foo")
+				.includeDocs(true)
+				.query(Foo.class);
+		List<Foo> streamed = new ArrayList<>();
+		try (CloseableIterator<Foo> it = dbClient.view("example/foo")
+				.includeDocs(true)
+				.queryForIterator(Foo.class)) {
+			while (it.hasNext()) {
+				streamed.add(it.next());
+			}
+		}
+		assertThat(streamed.size(), is(foos.size()));
+		assertThat(streamed.get(0).get_id(), is(foos.get(0).get_id()));
+	}
+	
+	@Test
+	public void queryForStream() {
+		try (Stream<JsonObject> rows = dbClient.view("_all_docs").queryForStream(JsonObject.class)) {
+			assertTrue(rows.limit(1).allMatch(row -> row.has("id")));
+		}
+		// the connection was released on close
+		assertThat(dbClient.view("_all_docs").query(JsonObject.class).size(), not(0));
+	}
+	
+	@Test
+	public void scan() {
+		List<Foo> foos = dbClient.view("example/foo")
+				.includeDocs(true)
+				.query(Foo.class);
+		List<Foo> scanned = new ArrayList<>();
+		try (ViewScanner<Foo> scanner = dbClient.view("example/foo")
+				.includeDocs(true)
+				.scan(2, Foo.class)) {
+			scanner.forEachRemaining(scanned::add);
+			assertThat(scanner.getPages() > 1, is(true));
+		}
+		assertThat(scanned.size(), is(foos.size()));
+		for (int i = 0; i < foos.size(); i++) {
+			assertThat(scanned.get(i).get_id(), is(foos.get(i).get_id()));
+		}
+	}
+	
+	@Test
+	public void scanComplexKeys() {
+		List<JsonObject> rows = dbClient.view("example/by_date")
+				.group(true)
+				.query(JsonObject.class);
+		List<JsonObject> scanned = new ArrayList<>();
+		try (ViewScanner<JsonObject> scanner = dbClient.view("example/by_date")
+				.group(true)
+				.scan(1, JsonObject.class)) {
+			scanner.forEachRemaining(scanned::add);
+		}
+		assertThat(scanned, is(rows));
+	}
+	
+	@Test
+	public void scanDecimalKeys() {
+		CouchDbClient<?, ?> jacksonClient = new CouchDbClient<>(new JacksonSerializer());
+		try {
+			List<Map<String, Object>> docs = new ArrayList<>();
+			for (double number : new double[] { 0.1, 0.2, 0.30000000000000004, 1.0E-7, 2.5, 1.7976931348623157E308 }) {
+				Map<String, Object> doc = new HashMap<>();
+				doc.put("number", number);
+				docs.add(doc);
+			}
+			jacksonClient.bulk(docs, true);
+			List<JsonNode> rows = jacksonClient.view("example/by_number").query(JsonNode.class);
+			List<JsonNode> scanned = new ArrayList<>();
+			try (ViewScanner<JsonNode> scanner = jacksonClient.view("example/by_number").scan(1, JsonNode.class)) {
+				scanner.forEachRemaining(scanned::add);
+			}
+			assertThat(scanned, is(rows));
+		} finally {
+			jacksonClient.shutdown();
+		}
+	}
+	
 	@Test
 	public void keyContainSpecialCharacter() {
 		final String key = "+9876543/2";
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 indaba.es
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lightcouch.tests;
+
+import org.junit.Test;
+import org.lightcouch.DocumentConflictException;
+import org.lightcouch.IdGenerator;
+import org.lightcouch.Response;
+import org.lightcouch.WriteBatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WriteBatcherTest extends CouchDbTestBase {
+
+	@Test
+	public void concurrentSaves() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(20);
+		try (WriteBatcher<?, ?> batcher = dbClient.writeBatcher(50, 20)) {
+			List<Future<Response>> futures = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				futures.add(threads.submit(() -> batcher.save(new Foo(generateUUID())).join()));
+			}
+			Set<String> ids = new HashSet<>();
+			for (Future<Response> future : futures) {
+				Response response = future.get();
+				assertThat(response.getRev().startsWith("1-"), is(true));
+				ids.add(response.getId());
+			}
+			assertThat(ids.size(), is(500));
+			for (String id : ids) {
+				assertTrue(dbClient.contains(id));
+			}
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	@Test
+	public void updateConflict() {
+		Response saved = dbClient.save(new Foo(generateUUID()));
+		Foo foo = dbClient.find(Foo.class, saved.getId());
+		try (WriteBatcher<?, ?> batcher = dbClient.writeBatcher(10, 50)) {
+			CompletableFuture<Response> first = batcher.update(foo);
+			CompletableFuture<Response> second = batcher.update(foo);
+			CompletableFuture<Response> other = batcher.save(new Foo());
+			assertThat(first.join().getRev().startsWith("2-"), is(true));
+			assertThat(other.join().getRev().startsWith("1-"), is(true));
+			try {
+				second.join();
+				fail("DocumentConflictException expected");
+			} catch (CompletionException e) {
+				assertThat(e.getCause(), instanceOf(DocumentConflictException.class));
+			}
+		}
+	}
+
+	@Test
+	public void closeWritesPending() {
+		WriteBatcher<?, ?> batcher = dbClient.writeBatcher(1000, 60000);
+		CompletableFuture<Response> response = batcher.save(new Foo());
+		batcher.close();
+		assertThat(response.isDone(), is(true));
+		assertTrue(dbClient.contains(response.join().getId()));
+	}
+
+	@Test
+	public void saveWithoutIdUsesIdGenerator() {
+		IdGenerator idGenerator = dbClient.getIdGenerator();
+		dbClient.setIdGenerator(() -> "batched-" + generateUUID());
+		try (WriteBatcher<?, ?> batcher = dbClient.writeBatcher(10, 10)) {
+			CompletableFuture<Response> foo = batcher.save(new Foo());
+			Map<String, Object> map = new HashMap<>();
+			map.put("field1", "value1");
+			CompletableFuture<Response> mapSaved = batcher.save(map);
+			assertThat(foo.join().getId().startsWith("batched-"), is(true));
+			assertThat(mapSaved.join().getId().startsWith("batched-"), is(true));
+		} finally {
+			dbClient.setIdGenerator(idGenerator);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void saveAfterClose() {
+		WriteBatcher<?, ?> batcher = dbClient.writeBatcher(10, 10);
+		batcher.close();
+		batcher.save(new Foo());
+	}
+
+	// Helper
+
+	private static String generateUUID() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+}
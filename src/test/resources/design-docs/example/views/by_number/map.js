@@ -0,0 +1,5 @@
+function(doc){
+  if(typeof doc.number === "number"){
+    emit(doc.number, null);
+  }
+}
\ No newline at end of file